@@ -20,6 +20,6 @@ package com.jamieallen.sdisruptor
 abstract class AbstractEntry {
   var _sequence: Long
   
-  def sequence: Long = sequence
+  def sequence: Long = _sequence
   def sequence_(newValue: Long) { _sequence = newValue }
 }
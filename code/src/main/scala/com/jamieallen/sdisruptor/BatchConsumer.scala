@@ -21,6 +21,12 @@ package com.jamieallen.sdisruptor
  *  If the {@link BatchHandler} also implements {@link LifecycleAware} it will be notified just after the thread
  *  is started and just before the thread is shutdown.
  *
+ *  If the {@link BatchHandler} also implements {@link SnapshotAware} its state can be snapshotted at the end of a batch
+ *  with {@link #requestSnapshot()} once a {@link SnapshotStore} has been set.
+ *
+ *  With a {@link SequenceCheckpoint} set the sequence is checkpointed as the consumer advances and the consumer
+ *  starts from the checkpointed sequence after a restart.
+ *
  *  @param <T> Entry implementation storing the data for sharing during exchange or parallel coordination of an event.
  */
 class BatchConsumer[A <: AbstractEntry](consumerBarrier: ConsumerBarrier[A], handler: BatchHandler[A]) extends Consumer {
@@ -30,12 +36,18 @@ class BatchConsumer[A <: AbstractEntry](consumerBarrier: ConsumerBarrier[A], han
 
   private var _exceptionHandler: ExceptionHandler = new FatalExceptionHandler(null)
   @volatile private var running = true
+  @volatile private var snapshotRequested = false
+  private var snapshotStore: SnapshotStore = null
+  private var checkpoint: SequenceCheckpoint = null
 
   if (handler.isInstanceOf[SequenceTrackingHandler[A]])
     handler.asInstanceOf[SequenceTrackingHandler[A]].setSequenceTrackerCallback(new SequenceTrackerCallback(this))
 
   override def sequence: Long = _sequence
-  override def sequence_(newSequence: Long) { _sequence = newSequence }
+  override def sequence_(newSequence: Long) {
+    _sequence = newSequence
+    consumerBarrier.signalProducers()
+  }
 
   override def halt() {
     running = false
@@ -53,10 +65,36 @@ class BatchConsumer[A <: AbstractEntry](consumerBarrier: ConsumerBarrier[A], han
     _exceptionHandler = newExceptionHandler
   }
 
+  /** Set the {@link SnapshotStore} that snapshots of a {@link SnapshotAware} handler are written to.
+   *
+   *  @param store to write snapshots to.
+   */
+  def snapshotStore_(store: SnapshotStore) {
+    if (!handler.isInstanceOf[SnapshotAware]) throw new IllegalArgumentException("BatchHandler is not SnapshotAware")
+
+    snapshotStore = store
+  }
+
+  /** Set the {@link SequenceCheckpoint} the sequence is checkpointed to, and start from the sequence it holds.
+   *  Must be set before the consumer is run.
+   *
+   *  @param sequenceCheckpoint to checkpoint to.
+   */
+  def checkpoint_(sequenceCheckpoint: SequenceCheckpoint) {
+    checkpoint = sequenceCheckpoint
+    _sequence = sequenceCheckpoint.sequence
+  }
+
+  /** Request a snapshot of the handler at the end of the next batch, may be called from any thread.  The producers
+   *  are not paused, the snapshot is taken between batches and written to the {@link SnapshotStore} asynchronously.
+   */
+  def requestSnapshot() { snapshotRequested = true }
+
   /** It is ok to have another thread rerun this method after a halt().
    */
   override def run {
     running = true;
+    consumerBarrier.clearAlert()
     if (classOf[LifecycleAware].isAssignableFrom(handler.getClass())) handler.asInstanceOf[LifecycleAware].onStart()
 
     var entry = null.asInstanceOf[A]
@@ -71,18 +109,28 @@ class BatchConsumer[A <: AbstractEntry](consumerBarrier: ConsumerBarrier[A], han
         }
 
         handler.onEndOfBatch();
+        if (snapshotRequested) snapshot(entry.sequence)
         _sequence = entry.sequence
+        consumerBarrier.signalProducers()
+        if (checkpoint != null) checkpoint.onEndOfBatch(_sequence)
       }
       catch {
         case ae: AlertException => // Wake up from blocking wait and check if we should continue to run
         case ex: Exception => {
 	        _exceptionHandler.handle(ex, entry.asInstanceOf[AbstractEntry])
 	        _sequence = entry.sequence
+	        consumerBarrier.signalProducers()
 	        nextSequence = entry.sequence + 1
         }
       }
     }
 
+    if (checkpoint != null) checkpoint.checkpoint(_sequence)
     if (classOf[LifecycleAware].isAssignableFrom(handler.getClass())) handler.asInstanceOf[LifecycleAware].onShutdown()
   }
+
+  private def snapshot(sequence: Long) {
+    snapshotRequested = false
+    if (snapshotStore != null) snapshotStore.write(sequence, handler.asInstanceOf[SnapshotAware].snapshot())
+  }
 }
@@ -19,18 +19,23 @@ import java.util.concurrent.atomic.AtomicLong;
 
 object ClaimStrategy {
   val MultiThreaded = "multiThreaded"
+  /** Multiple producers claim with {@link MultiThreadedStrategy} but commit independently of each other,
+   *  see {@link LowContentionMultiProducerRingBuffer}.
+   */
+  val MultiThreadedLowContention = "multiThreadedLowContention"
   val SingleThreaded = "singleThreaded"
   
 	def newInstance(option: String): ClaimStrategy = {
 	  option match {
 	    case SingleThreaded => new SingleThreadedStrategy
 	    case MultiThreaded => new MultiThreadedStrategy
+	    case MultiThreadedLowContention => new MultiThreadedStrategy
 	  }
 	}
 
   /** Optimised strategy can be used when there is a single producer thread claiming {@link AbstractEntry}s.
    */
-  class SingleThreadedStrategy extends ClaimStrategy {
+  final class SingleThreadedStrategy extends ClaimStrategy {
     private var _sequence = -1L
 
     override def incrementAndGet() = {
@@ -43,17 +48,27 @@ object ClaimStrategy {
       _sequence
     }
 
+    override def sequence = _sequence
     override def sequence_(sequence: Long) { _sequence = sequence }
   }
 	
   /** Strategy to be used when there are multiple producer threads claiming {@link AbstractEntry}s.
 	 */
-  class MultiThreadedStrategy extends ClaimStrategy {
+  final class MultiThreadedStrategy extends ClaimStrategy {
 	  private val _sequence = new AtomicLong(-1L)
 	
 	  override def incrementAndGet() = _sequence.incrementAndGet
 	  override def incrementAndGet(delta: Int) = _sequence.addAndGet(delta)
+	  override def sequence = _sequence.get
 	  override def sequence_(sequence: Long) { _sequence.set(sequence) }
+
+	  /** Claim up to a new sequence only if no other producer has claimed since expected was read.
+	   *
+	   *  @param expected sequence last claimed.
+	   *  @param sequence to be claimed up to.
+	   *  @return true if the claim succeeded.
+	   */
+	  def compareAndSet(expected: Long, sequence: Long) = _sequence.compareAndSet(expected, sequence)
   }
 }
 
@@ -73,6 +88,12 @@ trait ClaimStrategy {
    */
   def incrementAndGet(delta: Int): Long
 
+  /** Get the sequence most recently claimed.
+   *
+   *  @return the last claimed sequence.
+   */
+  def sequence: Long
+
   /** Set the current sequence value for claiming {@link AbstractEntry} in the {@link RingBuffer}
    *
    *  @param sequence to be set as the current value.
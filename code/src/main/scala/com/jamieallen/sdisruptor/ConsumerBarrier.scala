@@ -15,53 +15,16 @@
  */
 package com.jamieallen.sdisruptor
 
-import java.util.concurrent.TimeUnit
-
 /** Coordination barrier for tracking the cursor for producers and sequence of
  *  dependent {@link Consumer}s for a {@link RingBuffer}
  *
  *  @param <T> {@link AbstractEntry} implementation stored in the {@link RingBuffer}
  */
-trait ConsumerBarrier[T <: AbstractEntry] {
+trait ConsumerBarrier[T <: AbstractEntry] extends SequenceBarrier {
   /** Get the {@link AbstractEntry} for a given sequence from the underlying {@link RingBuffer}.
    *
    *  @param sequence of the {@link AbstractEntry} to get.
    *  @return the {@link AbstractEntry} for the sequence.
    */
   def getEntry(sequence: Long): T
-
-  /** Wait for the given sequence to be available for consumption.
-   *
-   *  @param sequence to wait for
-   *  @return the sequence up to which is available
-   */
-  def waitFor(sequence: Long): Long
-
-  /** Wait for the given sequence to be available for consumption with a time out.
-   *
-   *  @param sequence to wait for
-   *  @param timeout value
-   *  @param units for the timeout value
-   *  @return the sequence up to which is available
-   */
-  def waitFor(sequence: Long, timeout: Long, units: TimeUnit): Long
-
-  /** Delegate a call to the {@link RingBuffer#getCursor()}
-   *  @return value of the cursor for entries that have been published.
-   */
-  def getCursor: Long
-
-  /** The current alert status for the barrier.
-   *
-   *  @return true if in alert otherwise false.
-   */
-  def isAlerted: Boolean
-
-  /** Alert the consumers of a status change and stay in this status until cleared.
-   */
-  def alert()
-
-  /** Clear the current alert status.
-   */
-  def clearAlert()
 }
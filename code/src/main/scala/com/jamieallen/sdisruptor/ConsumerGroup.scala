@@ -0,0 +1,40 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import scala.annotation.varargs
+
+/** Group of {@link Consumer}s set up by a {@link Disruptor}, from which {@link BatchHandler}s that must only see an
+ *  {@link AbstractEntry} after every consumer of the group has consumed it are chained.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+class ConsumerGroup[T <: AbstractEntry] private[sdisruptor] (disruptor: Disruptor[T],
+                                                             private[sdisruptor] val consumers: Array[Consumer]) {
+  /** Set up {@link BatchHandler}s that handle events in parallel after every consumer of this group.
+   *
+   *  @param handlers to consume after this group.
+   *  @return a {@link ConsumerGroup} for the new handlers.
+   */
+  @varargs def then(handlers: BatchHandler[T]*): ConsumerGroup[T] = disruptor.createConsumers(consumers, handlers)
+
+  /** Combine with another group so that handlers chained from the result wait for both.
+   *
+   *  @param otherGroup to combine with.
+   *  @return a {@link ConsumerGroup} of the consumers of both groups.
+   */
+  def and(otherGroup: ConsumerGroup[T]): ConsumerGroup[T] = new ConsumerGroup[T](disruptor, consumers ++ otherGroup.consumers)
+}
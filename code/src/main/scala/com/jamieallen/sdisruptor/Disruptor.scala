@@ -0,0 +1,144 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.util.concurrent.ThreadFactory
+import scala.annotation.varargs
+import scala.collection.mutable.{ArrayBuffer, LinkedHashMap, LinkedHashSet}
+
+/** Builder for a graph of {@link BatchConsumer}s on a {@link RingBuffer} that creates the {@link ConsumerBarrier}s,
+ *  tracks the {@link Consumer}s at the end of each chain so the ring cannot wrap them, and runs each consumer on its
+ *  own thread.
+ *
+ *  <pre>
+ *  disruptor.handleEventsWith(fizzHandler, buzzHandler).then(fizzBuzzHandler);
+ *  RingBuffer ringBuffer = disruptor.start();
+ *  </pre>
+ *
+ *  The graph must be built before the Disruptor is started.  A halted Disruptor may be started again, the consumers
+ *  carrying on from their sequences.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param ringBuffer the {@link BatchHandler}s consume from, which the producers publish to.
+ *  @param threadFactory creating a thread for each {@link BatchConsumer} when started.
+ */
+class Disruptor[T <: AbstractEntry](val ringBuffer: RingBuffer[T], threadFactory: ThreadFactory) {
+  private[this] val batchConsumers = new LinkedHashMap[BatchHandler[T], BatchConsumer[T]]
+  private[this] val endOfChain = new LinkedHashSet[Consumer]
+  private[this] var exceptionHandler: ExceptionHandler = null
+  private[this] val threads = new ArrayBuffer[Thread]
+  private[this] var started = false
+
+  /** Set up {@link BatchHandler}s to handle events from the ring in parallel.
+   *
+   *  @param handlers to consume from the ring.
+   *  @return a {@link ConsumerGroup} that dependent handlers can be chained from.
+   */
+  @varargs def handleEventsWith(handlers: BatchHandler[T]*): ConsumerGroup[T] = createConsumers(new Array[Consumer](0), handlers)
+
+  /** Get a {@link ConsumerGroup} for {@link BatchHandler}s already set up, to chain handlers that depend on them.
+   *
+   *  @param handlers already handling events.
+   *  @return a {@link ConsumerGroup} for the handlers.
+   */
+  @varargs def after(handlers: BatchHandler[T]*): ConsumerGroup[T] =
+    new ConsumerGroup[T](this, handlers.map(consumerFor(_)).toArray)
+
+  /** Set the {@link ExceptionHandler} for every {@link BatchConsumer}, including those set up later.
+   *
+   *  @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  def handleExceptionsWith(newExceptionHandler: ExceptionHandler) {
+    if (null == newExceptionHandler) throw new NullPointerException()
+
+    exceptionHandler = newExceptionHandler
+    batchConsumers.values.foreach(_.exceptionHandler_(newExceptionHandler))
+  }
+
+  /** Get the {@link Consumer} running a {@link BatchHandler}, to track its sequence.
+   *
+   *  @param handler handling events.
+   *  @return the {@link Consumer} for the handler.
+   */
+  def consumerFor(handler: BatchHandler[T]): Consumer = batchConsumers.get(handler) match {
+    case Some(consumer) => consumer
+    case None => throw new IllegalArgumentException("BatchHandler is not handling events")
+  }
+
+  /** Get the {@link Consumer}s at the end of each chain, which the ring is gated on.
+   *
+   *  @return the gating {@link Consumer}s.
+   */
+  def gatingConsumers: Array[Consumer] = endOfChain.toArray
+
+  /** Gate the ring on the end of each chain and start a thread for every {@link BatchConsumer}.
+   *
+   *  @return the ring to publish to.
+   */
+  def start(): RingBuffer[T] = {
+    if (started) throw new IllegalStateException("Disruptor already started")
+    started = true
+
+    ringBuffer.consumersToTrack_(gatingConsumers)
+    for (consumer <- batchConsumers.values) threads += threadFactory.newThread(consumer)
+    threads.foreach(_.start())
+
+    ringBuffer
+  }
+
+  /** Halt every {@link BatchConsumer} at its next clean break and wait for its thread to finish.  Entries published
+   *  but not yet consumed are left in the ring.
+   */
+  def halt() {
+    for ((thread, consumer) <- threads.zip(batchConsumers.values)) {
+      while (thread.isAlive) {
+        consumer.halt()
+        thread.join(1L)
+      }
+    }
+
+    threads.clear()
+    started = false
+  }
+
+  /** Wait for every {@link BatchConsumer} to consume all the entries published so far, then {@link #halt()}.
+   *  Publishing must have stopped.
+   */
+  def shutdown() {
+    while (started && Util.getMinimumSequence(gatingConsumers) < ringBuffer.cursor) Thread.`yield`()
+
+    halt()
+  }
+
+  private[sdisruptor] def createConsumers(barrierConsumers: Array[Consumer], handlers: Seq[BatchHandler[T]]): ConsumerGroup[T] = {
+    if (started) throw new IllegalStateException("BatchHandlers must be set up before the Disruptor is started")
+
+    val consumerBarrier = ringBuffer.createConsumerBarrier(barrierConsumers)
+    val created = for (handler <- handlers) yield {
+      if (batchConsumers.contains(handler)) throw new IllegalArgumentException("BatchHandler is already handling events")
+
+      val consumer = new BatchConsumer[T](consumerBarrier, handler)
+      if (exceptionHandler != null) consumer.exceptionHandler_(exceptionHandler)
+      batchConsumers.put(handler, consumer)
+      consumer
+    }
+
+    barrierConsumers.foreach(endOfChain -= _)
+    created.foreach(endOfChain += _)
+
+    new ConsumerGroup[T](this, created.toArray[Consumer])
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.nio.ByteBuffer
+
+/** Implementations write the fields of an {@link AbstractEntry} to a buffer and read them back, for example to
+ *  journal entries with a {@link JournalingBatchHandler} and replay them with a {@link JournalReader}.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+trait EntryMarshaller[T <: AbstractEntry] {
+  /** Write the fields of an {@link AbstractEntry} at the position of the buffer.
+   *
+   *  @param entry to be written.
+   *  @param buffer to write the fields into.
+   */
+  def marshal(entry: T, buffer: ByteBuffer)
+
+  /** Read fields written by {@link #marshal(AbstractEntry, ByteBuffer)} into an {@link AbstractEntry}.
+   *
+   *  @param buffer positioned at the fields and limited to their end.
+   *  @param entry into which the fields should be read.
+   */
+  def unmarshal(buffer: ByteBuffer, entry: T)
+}
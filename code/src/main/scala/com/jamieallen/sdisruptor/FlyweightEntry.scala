@@ -0,0 +1,60 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.nio.ByteBuffer
+
+/** {@link AbstractEntry} that holds no data of its own but is positioned over a slot of an {@link OffHeapRingBuffer}.
+ *
+ *  Implementations hand-write their accessors over the protected get and put methods, which address the slot
+ *  by the offset of a field within it, and declare the number of bytes the fields occupy via {@link #size}.
+ *  As the same instance is moved from slot to slot it must not be held on to after the next entry is requested.
+ */
+abstract class FlyweightEntry extends AbstractEntry {
+  var _sequence = -1L
+  private[this] var buffer: ByteBuffer = null
+  private[this] var offset = 0
+
+  /** The number of bytes in a slot used by the fields of this entry.
+   *
+   *  @return size of the entry in bytes.
+   */
+  def size: Int
+
+  /** Position this flyweight over the slot at the given offset for a sequence.
+   *
+   *  @param buffer holding the slots of the {@link OffHeapRingBuffer}
+   *  @param offset of the slot within the buffer
+   *  @param sequence of the slot
+   */
+  private[sdisruptor] def wrap(buffer: ByteBuffer, offset: Int, sequence: Long) {
+    this.buffer = buffer
+    this.offset = offset
+    _sequence = sequence
+  }
+
+  protected final def getLong(fieldOffset: Int): Long = buffer.getLong(offset + fieldOffset)
+  protected final def putLong(fieldOffset: Int, value: Long) { buffer.putLong(offset + fieldOffset, value) }
+
+  protected final def getInt(fieldOffset: Int): Int = buffer.getInt(offset + fieldOffset)
+  protected final def putInt(fieldOffset: Int, value: Int) { buffer.putInt(offset + fieldOffset, value) }
+
+  protected final def getDouble(fieldOffset: Int): Double = buffer.getDouble(offset + fieldOffset)
+  protected final def putDouble(fieldOffset: Int, value: Double) { buffer.putDouble(offset + fieldOffset, value) }
+
+  protected final def getByte(fieldOffset: Int): Byte = buffer.get(offset + fieldOffset)
+  protected final def putByte(fieldOffset: Int, value: Byte) { buffer.put(offset + fieldOffset, value) }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.io.File
+
+/** {@link MappedRingBuffer} shared between a producer in one process and {@link Consumer}s in another through the
+ *  file they both map.
+ *
+ *  Each process opens an IpcRingBuffer on the same file, the producer process first.  The producer commits by writing
+ *  the cursor to the file and gates on the consumer sequences recorded in the file, which {@link BatchConsumer}s in the
+ *  consumer process record through their barriers as they advance.  Nothing on the hot path makes a system call, so
+ *  only strategies that spin, yield or sleep can be used; the blocking strategies rely on signals within a process.
+ *
+ *  @param <T> FlyweightEntry implementation giving access to the data in a slot.
+ *  @param file shared by the processes.
+ *  @param entryFactory to create the {@link FlyweightEntry}s positioned over the slots.
+ *  @param size of the IpcRingBuffer that will be rounded up to the next power of 2
+ *  @param consumers number of {@link Consumer}s in the consumer process that gate the producer.
+ *  @param waitStrategy employed by consumersToTrack waiting on {@link FlyweightEntry}s becoming available.
+ *  @param producerWaitStrategy employed by the producer waiting on consumersToTrack when the IpcRingBuffer is full.
+ */
+class IpcRingBuffer[T <: FlyweightEntry](file: File,
+                                         entryFactory: EntryFactory[T],
+                                         size: Int,
+                                         consumers: Int,
+                                         waitStrategy: WaitStrategy,
+                                         producerWaitStrategy: ProducerWaitStrategy)
+    extends MappedRingBuffer[T](file, entryFactory, size, consumers, waitStrategy, producerWaitStrategy) {
+  if (waitStrategy.isInstanceOf[WaitStrategy.BlockingStrategy] ||
+      waitStrategy.isInstanceOf[WaitStrategy.LiteBlockingStrategy] ||
+      waitStrategy.isInstanceOf[WaitStrategy.PhasedBackoffStrategy] ||
+      waitStrategy.isInstanceOf[WaitStrategy.AdaptiveStrategy] ||
+      waitStrategy.isInstanceOf[WaitStrategy.TargetedUnparkStrategy] ||
+      producerWaitStrategy.isInstanceOf[ProducerWaitStrategy.BlockingStrategy])
+    throw new IllegalArgumentException("Blocking strategies cannot be signalled from another process")
+
+  private[this] val recordedConsumers: Array[Consumer] = Array.tabulate(consumers)(new RecordedConsumer(_))
+
+  /** Set the consumers in this process whose sequences are recorded for the producer to gate on.
+   *
+   *  @param consumers to be tracked, one for each of the consumers the IpcRingBuffer was created for.
+   */
+  override def consumersToTrack_(consumers: Array[Consumer]) {
+    if (consumers.length != recordedConsumers.length)
+      throw new IllegalArgumentException("IpcRingBuffer is gated by " + recordedConsumers.length + " consumers, not " + consumers.length)
+    super.consumersToTrack_(consumers)
+  }
+
+  override def cursor: Long = recordedCursor
+
+  override protected def gatingConsumers: Array[Consumer] = recordedConsumers
+
+  /** Consumer standing in for one in another process by reading the sequence it records in the file.
+   */
+  private class RecordedConsumer(index: Int) extends Consumer {
+    override def sequence = recordedSequence(index)
+    override def sequence_(newSequence: Long) { }
+    override def halt() { }
+    override def run() { }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.zip.CRC32
+
+object JournalReader {
+  /** Bytes in front of the marshalled entry in each record: its length and sequence.
+   */
+  val HeaderSize = 12
+
+  /** Offset of the sequence within a record.
+   */
+  val SequenceOffset = 4
+
+  /** Bytes after the marshalled entry in each record: the CRC32 of the header and marshalled entry.
+   */
+  val ChecksumSize = 4
+
+  /** Marshal an entry into a record, leaving the record flipped ready to be written.
+   *
+   *  @return the checksum to be written after the record.
+   */
+  private[sdisruptor] def marshalRecord[T <: AbstractEntry](entry: T, marshaller: EntryMarshaller[T], record: ByteBuffer, crc: CRC32): Int =
+    marshalRecord(entry, entry.sequence, marshaller, record, crc)
+
+  /** Marshal an entry into a record journalled under a given sequence, leaving the record flipped ready to be written.
+   *
+   *  @return the checksum to be written after the record.
+   */
+  private[sdisruptor] def marshalRecord[T <: AbstractEntry](entry: T, sequence: Long, marshaller: EntryMarshaller[T],
+                                                             record: ByteBuffer, crc: CRC32): Int = {
+    record.clear()
+    record.putInt(0)
+    record.putLong(sequence)
+    marshaller.marshal(entry, record)
+    record.putInt(0, record.position() - HeaderSize)
+
+    crc.reset()
+    crc.update(record.array, 0, record.position())
+    record.flip()
+
+    crc.getValue.asInstanceOf[Int]
+  }
+
+  /** Check the record at a position in a buffer, such as a mapped journal segment.
+   *
+   *  @return the size of the record including its checksum or -1 if it is incomplete or fails its checksum.
+   */
+  private[sdisruptor] def recordSize(buffer: ByteBuffer, position: Int, maxEntrySize: Int, crc: CRC32, scratch: Array[Byte]): Int = {
+    if (buffer.limit() - position < HeaderSize) return -1
+    val length = buffer.getInt(position)
+    if (length < 0 || length > maxEntrySize || buffer.limit() - position - HeaderSize - ChecksumSize < length) return -1
+
+    buffer.position(position)
+    buffer.get(scratch, 0, HeaderSize + length)
+    crc.reset()
+    crc.update(scratch, 0, HeaderSize + length)
+    if (crc.getValue.asInstanceOf[Int] != buffer.getInt(position + HeaderSize + length)) return -1
+
+    HeaderSize + length + ChecksumSize
+  }
+
+  private[sdisruptor] def readFully(channel: FileChannel, buffer: ByteBuffer, position: Long): Boolean = {
+    var offset = position
+    while (buffer.hasRemaining) {
+      val read = channel.read(buffer, offset)
+      if (read < 0) return false
+      offset += read
+    }
+    true
+  }
+}
+
+/** Reads a journal written by a {@link JournalingBatchHandler} and republishes its entries through a {@link ProducerBarrier}.
+ *
+ *  Records are read until the end of the file or the first record that is incomplete or fails its checksum, which is
+ *  what a crash part way through a write leaves behind.  The file is truncated there so it can be appended to again.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param file holding the journal.
+ *  @param marshaller to read the entries from the journal.
+ *  @param maxEntrySize largest number of bytes a marshalled entry may take.
+ */
+class JournalReader[T <: AbstractEntry](file: File, marshaller: EntryMarshaller[T], maxEntrySize: Int) {
+  import JournalReader._
+
+  /** Republish the journalled entries through a {@link ProducerBarrier}, in the order they were journalled.
+   *
+   *  @param producerBarrier to claim and commit the entries through.
+   *  @return the sequence of the last entry republished or -1 if the journal is empty.
+   */
+  def replay(producerBarrier: ProducerBarrier[T]): Long = {
+    val randomAccessFile = new RandomAccessFile(file, "rw")
+    try {
+      val channel = randomAccessFile.getChannel
+      val record = ByteBuffer.allocate(HeaderSize + maxEntrySize + ChecksumSize)
+      val crc = new CRC32
+      var position = 0L
+      var lastSequence = -1L
+      var valid = true
+
+      while (valid) {
+        record.clear().limit(HeaderSize)
+        valid = readFully(channel, record, position)
+        val length = if (valid) record.getInt(0) else -1
+        valid = valid && length >= 0 && length <= maxEntrySize
+
+        if (valid) {
+          record.limit(HeaderSize + length + ChecksumSize)
+          valid = readFully(channel, record, position + HeaderSize)
+        }
+
+        if (valid) {
+          crc.reset()
+          crc.update(record.array, 0, HeaderSize + length)
+          valid = crc.getValue.asInstanceOf[Int] == record.getInt(HeaderSize + length)
+        }
+
+        if (valid) {
+          record.limit(HeaderSize + length).position(HeaderSize)
+          val entry = producerBarrier.nextEntry
+          marshaller.unmarshal(record, entry)
+          producerBarrier.commit(entry)
+
+          lastSequence = entry.sequence
+          position += HeaderSize + length + ChecksumSize
+        }
+      }
+
+      if (channel.size > position) channel.truncate(position)
+      lastSequence
+    } finally {
+      randomAccessFile.close()
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.zip.CRC32
+
+/** {@link BatchHandler} appending each {@link AbstractEntry} to a checksummed journal file, typically run ahead of
+ *  the {@link Consumer}s holding the business logic so they only see entries once they are durable.
+ *
+ *  Records are gathered in a direct buffer during a batch and written and forced to the device once in
+ *  {@link #onEndOfBatch()}, so the cost of the force is shared by every entry in the batch.  As the {@link BatchConsumer}
+ *  only advances its sequence after onEndOfBatch, dependent {@link Consumer}s never get ahead of the journal.
+ *
+ *  Each record holds the length of the marshalled entry, its sequence, the marshalled entry and a CRC32 of them.
+ *  The journal is opened for appending in {@link #onStart()} and closed in {@link #onShutdown()}.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param file holding the journal, created if it does not exist.
+ *  @param marshaller to write the entries to the journal.
+ *  @param maxEntrySize largest number of bytes a marshalled entry may take.
+ *  @param bufferSize number of bytes gathered before they are written, the write is forced at the end of the batch.
+ */
+class JournalingBatchHandler[T <: AbstractEntry](file: File, marshaller: EntryMarshaller[T], maxEntrySize: Int, bufferSize: Int)
+    extends BatchHandler[T] with LifecycleAware {
+  import JournalReader._
+
+  private[this] val record = ByteBuffer.allocate(HeaderSize + maxEntrySize)
+  private[this] val buffer = ByteBuffer.allocateDirect(math.max(bufferSize, record.capacity + ChecksumSize))
+  private[this] val crc = new CRC32
+  private[this] var randomAccessFile: RandomAccessFile = null
+  private[this] var channel: FileChannel = null
+  private[this] var replayedSequence = -1L
+
+  /** Republish the journal through a {@link ProducerBarrier}, which must be done before the {@link BatchConsumer}
+   *  for this handler is started.  The republished entries are not journalled again when they reach this handler.
+   *
+   *  @param producerBarrier to claim and commit the entries through.
+   *  @return the sequence of the last entry republished or -1 if the journal is empty.
+   */
+  def replay(producerBarrier: ProducerBarrier[T]): Long = {
+    replayedSequence = new JournalReader[T](file, marshaller, maxEntrySize).replay(producerBarrier)
+    replayedSequence
+  }
+
+  override def onStart() {
+    randomAccessFile = new RandomAccessFile(file, "rw")
+    channel = randomAccessFile.getChannel
+    channel.position(channel.size)
+  }
+
+  override def onAvailable(entry: T) {
+    if (entry.sequence <= replayedSequence) return
+
+    val checksum = marshalRecord(entry, marshaller, record, crc)
+
+    if (buffer.remaining() < record.remaining() + ChecksumSize) write()
+    buffer.put(record)
+    buffer.putInt(checksum)
+  }
+
+  override def onEndOfBatch() {
+    if (buffer.position() == 0) return
+
+    write()
+    channel.force(false)
+  }
+
+  override def onShutdown() {
+    onEndOfBatch()
+    randomAccessFile.close()
+  }
+
+  private def write() {
+    buffer.flip()
+    while (buffer.hasRemaining) channel.write(buffer)
+    buffer.clear()
+  }
+}
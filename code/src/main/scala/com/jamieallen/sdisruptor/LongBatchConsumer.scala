@@ -0,0 +1,68 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** Batching consumer of a {@link LongRingBuffer} delegating each available value to a {@link LongBatchHandler}.
+ *
+ *  If the {@link LongBatchHandler} also implements {@link LifecycleAware} it will be notified just after the thread
+ *  is started and just before the thread is shutdown.  Exceptions thrown by the handler are not caught and end the run.
+ */
+class LongBatchConsumer(consumerBarrier: LongConsumerBarrier, handler: LongBatchHandler) extends Consumer {
+  val p1, p2, p3, p4, p5, p6, p7: Long = -1L  // cache line padding
+  @volatile private var _sequence: Long = -1L
+  val p8, p9, p10, p11, p12, p13, p14: Long = -1L // cache line padding
+
+  @volatile private var running = true
+
+  override def sequence: Long = _sequence
+  override def sequence_(newSequence: Long) {
+    _sequence = newSequence
+    consumerBarrier.signalProducers()
+  }
+
+  override def halt() {
+    running = false
+    consumerBarrier.alert
+  }
+
+  /** It is ok to have another thread rerun this method after a halt().
+   */
+  override def run {
+    running = true;
+    consumerBarrier.clearAlert()
+    if (classOf[LifecycleAware].isAssignableFrom(handler.getClass())) handler.asInstanceOf[LifecycleAware].onStart()
+
+    var nextSequence: Long = sequence + 1
+    while (running) {
+      try {
+        val availableSequence = consumerBarrier.waitFor(nextSequence)
+        while (nextSequence <= availableSequence) {
+          handler.onAvailable(nextSequence, consumerBarrier.getValue(nextSequence))
+          nextSequence += 1
+        }
+
+        handler.onEndOfBatch()
+        _sequence = nextSequence - 1
+        consumerBarrier.signalProducers()
+      }
+      catch {
+        case ae: AlertException => // Wake up from blocking wait and check if we should continue to run
+      }
+    }
+
+    if (classOf[LifecycleAware].isAssignableFrom(handler.getClass())) handler.asInstanceOf[LifecycleAware].onShutdown()
+  }
+}
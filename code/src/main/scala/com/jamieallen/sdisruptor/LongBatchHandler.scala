@@ -0,0 +1,34 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** Callback interface to be implemented for processing values as they become available in a {@link LongRingBuffer}
+ */
+trait LongBatchHandler {
+  /** Called when a publisher has committed a value to the {@link LongRingBuffer}
+   *
+   *  @param sequence of the value.
+   *  @param value committed to the {@link LongRingBuffer}
+   */
+  def onAvailable(sequence: Long, value: Long)
+
+  /** Called after each batch of values has been processed before the next waitFor call on a {@link LongConsumerBarrier}.
+   *  <p>
+   *  This can be taken as a hint to do flush type operations before waiting once again on the {@link LongConsumerBarrier}.
+   *  The user should not expect any pattern or frequency to the batch size.
+   */
+  def onEndOfBatch()
+}
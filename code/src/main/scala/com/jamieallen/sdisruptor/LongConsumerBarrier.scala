@@ -0,0 +1,28 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** Coordination barrier for tracking the cursor for producers and sequence of
+ *  dependent {@link Consumer}s for a {@link LongRingBuffer}
+ */
+trait LongConsumerBarrier extends SequenceBarrier {
+  /** Get the value for a given sequence from the underlying {@link LongRingBuffer}.
+   *
+   *  @param sequence of the value to get.
+   *  @return the value for the sequence.
+   */
+  def getValue(sequence: Long): Long
+}
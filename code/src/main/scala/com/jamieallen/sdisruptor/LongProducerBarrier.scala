@@ -0,0 +1,72 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** Abstraction for claiming slots of a {@link LongRingBuffer} and publishing primitive long values into them
+ *  while tracking dependent {@link Consumer}s.
+ */
+trait LongProducerBarrier {
+  /** Get the value for a given sequence from the underlying {@link LongRingBuffer}.
+   *
+   *  @param sequence of the value to get.
+   *  @return the value for the sequence.
+   */
+  def value(sequence: Long): Long
+
+  /** Delegate a call to the {@link LongRingBuffer#cursor()}
+   *
+   *  @return value of the cursor for values that have been published.
+   */
+  def cursor: Long
+
+  /** Claim the next sequence for a producer, waiting for {@link Consumer}s if the ring is full.
+   *
+   *  @return the claimed sequence.
+   */
+  def next(): Long
+
+  /** Set the value for a claimed sequence.
+   *
+   *  @param sequence claimed with {@link #next()}
+   *  @param value to store for the sequence.
+   */
+  def set(sequence: Long, value: Long)
+
+  /** Commit a claimed sequence to make its value visible to {@link Consumer}s.
+   *
+   *  @param sequence to be committed.
+   */
+  def commit(sequence: Long)
+
+  /** Claim the next sequence, set its value and commit it.
+   *
+   *  @param value to publish.
+   */
+  def publish(value: Long)
+
+  /** Publish a value only if the ring has capacity for it, otherwise return immediately without claiming.
+   *
+   *  @param value to publish.
+   *  @return true if the value was published, false if the ring is full.
+   */
+  def tryPublish(value: Long): Boolean
+
+  /** Get the number of values that can be published before the slowest tracked {@link Consumer} gates producers.
+   *
+   *  @return the remaining capacity of the ring.
+   */
+  def remainingCapacity: Long
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.util.concurrent.TimeUnit
+
+/** Ring of primitive long values exchanged between a single producer and consumersToTrack.
+ *
+ *  Values live in one contiguous long[] so there is no {@link AbstractEntry} per slot for consumers to dereference
+ *  and nothing for the garbage collector to trace.  Int values widen losslessly and double values can be carried
+ *  with {@link java.lang.Double#doubleToRawLongBits(double)}.
+ *
+ *  @param size of the LongRingBuffer that will be rounded up to the next power of 2
+ *  @param waitStrategy employed by consumersToTrack waiting on values becoming available.
+ *  @param producerWaitStrategy employed by the producer waiting on consumersToTrack when the LongRingBuffer is full.
+ */
+class LongRingBuffer(size: Int,
+                     val waitStrategy: WaitStrategy,
+                     val producerWaitStrategy: ProducerWaitStrategy) extends LongProducerBarrier {
+  val p1, p2, p3, p4, p5, p6, p7: Long = -1L // cache line padding
+  @volatile private[this] var _cursor = -1L
+  val p8, p9, p10, p11, p12, p13, p14: Long = -1L // cache line padding
+
+  val sizeAsPowerOfTwo = Util.ceilingNextPowerOfTwo(size)
+  val ringModMask = sizeAsPowerOfTwo - 1
+  val values = new Array[Long](sizeAsPowerOfTwo)
+
+  private[this] val claimStrategy = new ClaimStrategy.SingleThreadedStrategy
+  private[this] var gatingSequenceCache = -1L
+  var _consumersToTrack = new Array[Consumer](0)
+  private[this] val gatingConsumers = Array[Consumer](new GatingConsumer)
+
+  /** Set the consumersToTrack that will be tracked to prevent the ring wrapping.
+   *
+   *  @param consumers to be tracked.
+   */
+  def consumersToTrack_(consumers: Array[Consumer]) { _consumersToTrack = consumers }
+
+  /** Create a {@link LongConsumerBarrier} that gates on the LongRingBuffer and a list of {@link Consumer}s
+   *
+   *  @param consumersToTrack this barrier will track
+   *  @return the barrier gated as required
+   */
+  def createConsumerBarrier(consumersToTrack: Array[Consumer]): LongConsumerBarrier = new ConsumerTrackingLongConsumerBarrier(consumersToTrack)
+
+  /** The capacity of the LongRingBuffer to hold values.
+   *
+   *  @return the size of the LongRingBuffer.
+   */
+  def capacity = values.length
+
+  override def cursor: Long = _cursor
+
+  override def value(sequence: Long): Long = values(sequence.asInstanceOf[Int] & ringModMask)
+
+  override def next(): Long = {
+    val sequence = claimStrategy.incrementAndGet()
+    val wrapPoint = sequence - values.length
+    if (wrapPoint > gatingSequenceCache) gatingSequenceCache = producerWaitStrategy.waitFor(gatingConsumers, wrapPoint)
+
+    sequence
+  }
+
+  override def set(sequence: Long, value: Long) { values(sequence.asInstanceOf[Int] & ringModMask) = value }
+
+  override def commit(sequence: Long) {
+    _cursor = sequence
+    waitStrategy.signalAll()
+  }
+
+  override def publish(value: Long) {
+    val sequence = next()
+    values(sequence.asInstanceOf[Int] & ringModMask) = value
+    commit(sequence)
+  }
+
+  override def tryPublish(value: Long): Boolean = {
+    val sequence = claimStrategy.sequence + 1
+    val wrapPoint = sequence - values.length
+    if (wrapPoint > gatingSequenceCache) {
+      gatingSequenceCache = gatingConsumers(0).sequence
+      if (wrapPoint > gatingSequenceCache) return false
+    }
+
+    claimStrategy.sequence_(sequence)
+    values(sequence.asInstanceOf[Int] & ringModMask) = value
+    commit(sequence)
+    true
+  }
+
+  override def remainingCapacity: Long = {
+    val claimed = claimStrategy.sequence
+    val consumed = Util.getMinimumSequence(_consumersToTrack)
+    capacity - (claimed - (if (consumed < claimed) consumed else claimed))
+  }
+
+  /** Minimum of the consumersToTrack capped at the cursor, as for the {@link RingBuffer}, so the producer never
+   *  caches Long.MaxValue while no consumers are tracked and then runs past those tracked later.
+   */
+  private class GatingConsumer extends Consumer {
+    override def sequence: Long = {
+      val cursorSequence = cursor
+      val minimumSequence = Util.getMinimumSequence(_consumersToTrack)
+      if (minimumSequence < cursorSequence) minimumSequence else cursorSequence
+    }
+    override def sequence_(newSequence: Long) { }
+    override def halt() { }
+    override def run() { }
+  }
+
+  /** LongConsumerBarrier handed out for gating consumersToTrack of the LongRingBuffer and dependent {@link Consumer}(s)
+   */
+  private class ConsumerTrackingLongConsumerBarrier(consumers: Array[Consumer]) extends LongConsumerBarrier {
+    @volatile private var alerted = false;
+
+    override def getValue(sequence: Long): Long = values(sequence.asInstanceOf[Int] & ringModMask)
+    override def waitFor(sequence: Long): Long = { waitStrategy.waitFor(consumers, this, sequence) }
+    override def waitFor(sequence: Long, timeout: Long, units: TimeUnit): Long = { waitStrategy.waitFor(consumers, this, sequence, timeout, units) }
+    override def getCursor = cursor
+    override def availableSequence = if (0 == consumers.length) cursor else Util.getMinimumSequence(consumers)
+    override def isAlerted = alerted
+    override def alert() {
+      alerted = true
+      waitStrategy.signalAll()
+    }
+    override def clearAlert() { alerted = false }
+    override def signalProducers() {
+      producerWaitStrategy.signalAll()
+      waitStrategy.signalConsumerAdvanced()
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.util.concurrent.atomic.AtomicLongArray
+
+/** {@link RingBuffer} for multiple producer threads that commit independently of each other.
+ *
+ *  Each commit marks its slots in an availability array, indexed by sequence & ringModMask and holding the
+ *  sequence so that laps of the ring are told apart, then moves the cursor to the highest contiguous available
+ *  sequence.  A descheduled producer therefore never stalls the producers that claimed after it.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param entryFactory to create {@link AbstractEntry}s for filling the RingBuffer
+ *  @param size of the RingBuffer that will be rounded up to the next power of 2
+ *  @param waitStrategy employed by consumersToTrack waiting on {@link AbstractEntry}s becoming available.
+ *  @param producerWaitStrategy employed by producers waiting on consumersToTrack when the RingBuffer is full.
+ */
+final class LowContentionMultiProducerRingBuffer[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[T],
+                                                                                     size: Int,
+                                                                                     waitStrategy: WaitStrategy,
+                                                                                     producerWaitStrategy: ProducerWaitStrategy)
+    extends RingBuffer[T](entryFactory, size, waitStrategy, producerWaitStrategy) {
+  private[this] val claimStrategy = new ClaimStrategy.MultiThreadedStrategy
+  private[this] val availableSequences = new AtomicLongArray(sizeAsPowerOfTwo)
+
+  for (i <- 0 until sizeAsPowerOfTwo) availableSequences.set(i, -1L)
+
+  override protected def claim(delta: Int) = claimStrategy.incrementAndGet(delta)
+
+  override protected def tryClaim(delta: Int): Long = {
+    while (true) {
+      val current = claimStrategy.sequence
+      val sequence = current + delta
+      if (!hasCapacity(sequence)) return -1L
+      if (claimStrategy.compareAndSet(current, sequence)) return sequence
+    }
+    -1L
+  }
+
+  override protected def claimedSequence = claimStrategy.sequence
+  override protected def forceClaimedSequence(sequence: Long) { claimStrategy.sequence_(sequence) }
+
+  override protected def publish(sequence: Long, batchSize: Long) {
+    markAvailable(sequence, batchSize)
+    advanceCursor()
+    waitStrategy.signalAll()
+  }
+
+  private def markAvailable(sequence: Long, batchSize: Long) {
+    var i = sequence - batchSize + 1
+    while (i <= sequence) {
+      availableSequences.set(i.asInstanceOf[Int] & ringModMask, i)
+      i += 1
+    }
+  }
+
+  /** Move the cursor to the highest contiguous available sequence.  A producer that loses the race
+   *  re-reads the cursor and scans again so slots marked by a slower producer are never left behind.
+   */
+  private def advanceCursor() {
+    var current = cursor
+    var highest = highestContiguousAvailable(current)
+    while (highest > current && !compareAndSetCursor(current, highest)) {
+      current = cursor
+      highest = highestContiguousAvailable(current)
+    }
+  }
+
+  private def highestContiguousAvailable(from: Long): Long = {
+    var sequence = from + 1
+    while (availableSequences.get(sequence.asInstanceOf[Int] & ringModMask) == sequence) sequence += 1
+    sequence - 1
+  }
+}
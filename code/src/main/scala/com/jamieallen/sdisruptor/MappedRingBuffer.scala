@@ -0,0 +1,153 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+
+object MappedRingBuffer {
+  /** Marks a file whose header has been written by a MappedRingBuffer.
+   */
+  val Magic = 0x5344697352696e67L
+
+  private val SizeOffset = 8
+  private val SlotSizeOffset = 12
+  private val MaxConsumersOffset = 16
+  private val CursorOffset = OffHeapRingBuffer.CacheLineSize
+
+  /** Size of the header holding the geometry, the cursor and the sequence of each consumer, each on its own cache line.
+   *
+   *  @param maxConsumers that can have their sequence recorded.
+   *  @return the size of the header in bytes.
+   */
+  def headerSize(maxConsumers: Int) = (2 + maxConsumers) * OffHeapRingBuffer.CacheLineSize
+
+  private def map(file: File, position: Long, size: Long): MappedByteBuffer = {
+    val randomAccessFile = new RandomAccessFile(file, "rw")
+    try {
+      randomAccessFile.getChannel.map(FileChannel.MapMode.READ_WRITE, position, size)
+    } finally {
+      randomAccessFile.close()
+    }
+  }
+}
+
+/** {@link OffHeapRingBuffer} whose slots, cursor and tracked consumer sequences live in a memory-mapped file so the
+ *  pipeline can resume after the process restarts without re-ingesting from upstream.
+ *
+ *  The cursor is written to the file on every commit and the sequences of the consumersToTrack each time one of them
+ *  signals progress through a barrier of the ring.  A recorded consumer sequence may lag the consumer, never lead it,
+ *  so after a restart some entries may be delivered again but none are lost.  On restart set each consumer to
+ *  {@link #recoveredSequence(Int)} before running it.
+ *
+ *  The mapped pages survive the process exiting or crashing; call {@link #force()} to also survive the machine going down.
+ *
+ *  @param <T> FlyweightEntry implementation giving access to the data in a slot.
+ *  @param file the ring is mapped to, created if it does not exist.
+ *  @param entryFactory to create the {@link FlyweightEntry}s positioned over the slots.
+ *  @param size of the MappedRingBuffer that will be rounded up to the next power of 2
+ *  @param maxConsumers number of consumersToTrack that can have their sequences recorded.
+ *  @param waitStrategy employed by consumersToTrack waiting on {@link FlyweightEntry}s becoming available.
+ *  @param producerWaitStrategy employed by the producer waiting on consumersToTrack when the MappedRingBuffer is full.
+ */
+class MappedRingBuffer[T <: FlyweightEntry](file: File,
+                                            entryFactory: EntryFactory[T],
+                                            size: Int,
+                                            maxConsumers: Int,
+                                            waitStrategy: WaitStrategy,
+                                            producerWaitStrategy: ProducerWaitStrategy)
+    extends OffHeapRingBuffer[T](entryFactory, size, waitStrategy, producerWaitStrategy) {
+  import MappedRingBuffer._
+
+  private[this] val header = map(file, 0L, headerSize(maxConsumers))
+  header.order(ByteOrder.nativeOrder())
+  private[this] val headerAddress = SharedMemory.address(header)
+
+  if (header.getLong(0) == Magic) {
+    if (header.getInt(SizeOffset) != sizeAsPowerOfTwo || header.getInt(SlotSizeOffset) != slotSize ||
+        header.getInt(MaxConsumersOffset) != maxConsumers)
+      throw new IllegalStateException(file + " holds a ring of " + header.getInt(SizeOffset) + " slots of " +
+                                      header.getInt(SlotSizeOffset) + " bytes for " + header.getInt(MaxConsumersOffset) + " consumers")
+    resetSequence(header.getLong(CursorOffset))
+  } else {
+    header.putInt(SizeOffset, sizeAsPowerOfTwo)
+    header.putInt(SlotSizeOffset, slotSize)
+    header.putInt(MaxConsumersOffset, maxConsumers)
+    header.putLong(CursorOffset, -1L)
+    for (i <- 0 until maxConsumers) header.putLong(consumerOffset(i), -1L)
+    header.putLong(0, Magic)
+  }
+
+  /** Set the consumersToTrack that will be tracked to prevent the ring wrapping and have their sequences recorded.
+   *
+   *  @param consumers to be tracked, in the same order on every start.
+   */
+  override def consumersToTrack_(consumers: Array[Consumer]) {
+    if (consumers.length > maxConsumers)
+      throw new IllegalArgumentException(consumers.length + " consumers exceeds the " + maxConsumers + " that can be recorded")
+    super.consumersToTrack_(consumers)
+  }
+
+  /** Get the sequence last recorded for a tracked consumer.
+   *
+   *  @param index of the consumer in the consumersToTrack.
+   *  @return the recorded sequence or -1 if none has been recorded.
+   */
+  def recoveredSequence(index: Int): Long = recordedSequence(index)
+
+  /** Force the contents of the ring to the storage device.
+   */
+  def force() {
+    buffer.asInstanceOf[MappedByteBuffer].force()
+    header.force()
+  }
+
+  override protected def allocate(capacity: Int): ByteBuffer = map(file, headerSize(maxConsumers), capacity)
+
+  override protected def publish(sequence: Long) {
+    SharedMemory.putOrderedLong(headerAddress + CursorOffset, sequence)
+    super.publish(sequence)
+  }
+
+  override protected def signalProducers() {
+    val consumers = _consumersToTrack
+    var i = 0
+    while (i < consumers.length) {
+      SharedMemory.putOrderedLong(headerAddress + consumerOffset(i), consumers(i).sequence)
+      i += 1
+    }
+    super.signalProducers()
+  }
+
+  /** Get the cursor as last written to the file, which may be by another process.
+   *
+   *  @return the recorded cursor.
+   */
+  protected final def recordedCursor: Long = SharedMemory.getLongVolatile(headerAddress + CursorOffset)
+
+  /** Get the sequence of a tracked consumer as last written to the file, which may be by another process.
+   *
+   *  @param index of the consumer in the consumersToTrack.
+   *  @return the recorded sequence.
+   */
+  protected final def recordedSequence(index: Int): Long = SharedMemory.getLongVolatile(headerAddress + consumerOffset(index))
+
+  private def consumerOffset(index: Int) = (2 + index) * OffHeapRingBuffer.CacheLineSize
+}
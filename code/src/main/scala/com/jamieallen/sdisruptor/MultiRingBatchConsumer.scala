@@ -0,0 +1,234 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.util.concurrent.TimeUnit
+
+object MultiRingBatchConsumer {
+  /** Rings are served in turn, each sweep starting at the ring after the one that started the last sweep.
+   */
+  val Fair = "fair"
+  /** Rings are served in the order given, a ring is only served when no earlier ring has entries available.  Unless
+   *  weights are set a ring is served PriorityBatchSize entries at a time, so an earlier ring waits for at most that
+   *  many entries of a later one.
+   */
+  val Priority = "priority"
+  /** Rings are served in the order given on every sweep, each ring for up to its weight in entries, so rings share
+   *  the thread in proportion to their weights while they are all busy.
+   */
+  val Weighted = "weighted"
+
+  /** Default maximum number of entries served from a ring at a time with {@link #Priority}.
+   */
+  val PriorityBatchSize = 16
+}
+
+/** Consumer running on a single thread that consumes from several {@link RingBuffer}s at once, delegating the
+ *  {@link AbstractEntry}s available from each ring to the {@link BatchHandler} given for it.  This replaces a
+ *  thread per ring and a queue to merge them when the handlers share state.
+ *
+ *  A sequence is kept per ring and exposed as a {@link Consumer} by {@link #consumer(Int)} for the ring to track
+ *  and for dependent {@link Consumer}s to gate on.  When no ring has entries available the thread waits on the
+ *  given {@link WaitStrategy} until the sequence available from any barrier advances, be it the cursor of the ring
+ *  or the {@link Consumer}s the barrier is gated on.  Strategies that block or park, such as the
+ *  {@link WaitStrategy.BlockingStrategy}, are only signalled by producers when they are the same instance the rings
+ *  were built with.
+ *
+ *  If a {@link BatchHandler} also implements {@link LifecycleAware} it will be notified just after the thread
+ *  is started and just before the thread is shutdown.
+ *
+ *  @param consumerBarriers one for each ring to consume from.
+ *  @param handlers one for each ring, to which the available entries of the ring are delegated.
+ *  @param waitStrategy to wait on while no ring has entries available.
+ *  @param selectOption {@link MultiRingBatchConsumer#Fair}, {@link MultiRingBatchConsumer#Priority} or
+ *                      {@link MultiRingBatchConsumer#Weighted}.
+ */
+class MultiRingBatchConsumer(consumerBarriers: Array[ConsumerBarrier[_ <: AbstractEntry]],
+                             handlers: Array[BatchHandler[_ <: AbstractEntry]],
+                             waitStrategy: WaitStrategy,
+                             selectOption: String) extends Runnable {
+  if (consumerBarriers.length == 0) throw new IllegalArgumentException("At least one ConsumerBarrier is required")
+  if (consumerBarriers.length != handlers.length) throw new IllegalArgumentException("A BatchHandler is required for each ConsumerBarrier")
+
+  private[this] val priority = selectOption match {
+    case MultiRingBatchConsumer.Fair => false
+    case MultiRingBatchConsumer.Priority => true
+    case MultiRingBatchConsumer.Weighted => false
+    case _ => throw new IllegalArgumentException("Unknown select option: " + selectOption)
+  }
+  private[this] val rotate = selectOption == MultiRingBatchConsumer.Fair
+
+  private[this] val rings = consumerBarriers.length
+  private[this] val ringConsumers = consumerBarriers.map(new RingConsumer(_))
+  private[this] val selectBarrier = new SelectBarrier
+  private[this] val noConsumers = new Array[Consumer](0)
+  private[this] val weights =
+    Array.fill(consumerBarriers.length)(if (priority) MultiRingBatchConsumer.PriorityBatchSize.toLong else Int.MaxValue.toLong)
+  private var _exceptionHandler: ExceptionHandler = new FatalExceptionHandler(null)
+  @volatile private var running = true
+
+  /** Get the {@link Consumer} giving the sequence consumed from a ring.  Running it does nothing, halting it halts
+   *  this consumer.
+   *
+   *  @param index of the ring in the order the {@link ConsumerBarrier}s were given.
+   *  @return gating {@link Consumer} for the ring.
+   */
+  def consumer(index: Int): Consumer = ringConsumers(index)
+
+  /** Get the number of entries published to a ring and not yet consumed.
+   *
+   *  @param index of the ring in the order the {@link ConsumerBarrier}s were given.
+   *  @return the backlog of the ring.
+   */
+  def backlog(index: Int): Long = consumerBarriers(index).getCursor - ringConsumers(index).sequence
+
+  /** Set the maximum number of entries consumed from each ring at a time, which are unlimited by default other than
+   *  with {@link MultiRingBatchConsumer#Priority}.
+   *  Must be set before the consumer is run.
+   *
+   *  @param newWeights one for each ring in the order the {@link ConsumerBarrier}s were given.
+   */
+  def weights_(newWeights: Array[Int]) {
+    if (newWeights.length != rings) throw new IllegalArgumentException("A weight is required for each ConsumerBarrier")
+    if (newWeights.exists(_ < 1)) throw new IllegalArgumentException("Weights must be positive")
+
+    for (i <- 0 until rings) weights(i) = newWeights(i)
+  }
+
+  /** Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link BatchHandler}s
+   *
+   *  @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  def exceptionHandler_(newExceptionHandler: ExceptionHandler) {
+    if (null == newExceptionHandler) throw new NullPointerException()
+
+    _exceptionHandler = newExceptionHandler
+  }
+
+  /** Signal that the consumer should stop once it has finished the batch in hand.
+   */
+  def halt() {
+    running = false
+    consumerBarriers.foreach(_.alert())
+    selectBarrier.alert()
+  }
+
+  /** It is ok to have another thread rerun this method after a halt().
+   */
+  override def run {
+    running = true
+    consumerBarriers.foreach(_.clearAlert())
+    selectBarrier.clearAlert()
+    for (handler <- handlers.distinct if handler.isInstanceOf[LifecycleAware]) handler.asInstanceOf[LifecycleAware].onStart()
+
+    var first = 0
+    while (running) {
+      try {
+        val observedCursors = selectBarrier.getCursor
+        var served = false
+        var i = 0
+        while (i < rings && running) {
+          if (serve(if (rotate) (first + i) % rings else i)) {
+            served = true
+            if (priority) i = rings
+          }
+          i += 1
+        }
+
+        first = (first + 1) % rings
+        if (!served) waitStrategy.waitFor(noConsumers, selectBarrier, observedCursors + 1L)
+      }
+      catch {
+        case ae: AlertException => // Wake up from blocking wait and check if we should continue to run
+      }
+    }
+
+    for (handler <- handlers.distinct if handler.isInstanceOf[LifecycleAware]) handler.asInstanceOf[LifecycleAware].onShutdown()
+  }
+
+  /** Consume the entries available from a ring as a batch of no more than the weight of the ring.
+   *
+   *  @return true if any entries were available.
+   */
+  private def serve(ring: Int): Boolean = {
+    val consumerBarrier = consumerBarriers(ring)
+    val nextSequence = ringConsumers(ring).sequence + 1L
+    val availableSequence = Math.min(consumerBarrier.availableSequence, nextSequence - 1L + weights(ring))
+
+    if (availableSequence < nextSequence) false
+    else {
+      val handler = handlers(ring).asInstanceOf[BatchHandler[AbstractEntry]]
+      var entry: AbstractEntry = null
+      var sequence = nextSequence
+      try {
+        while (sequence <= availableSequence) {
+          entry = consumerBarrier.getEntry(sequence)
+          handler.onAvailable(entry)
+          sequence += 1L
+        }
+
+        handler.onEndOfBatch()
+        ringConsumers(ring).sequence_(availableSequence)
+      }
+      catch {
+        case ex: Exception => {
+          _exceptionHandler.handle(ex, entry)
+          ringConsumers(ring).sequence_(entry.sequence)
+        }
+      }
+      true
+    }
+  }
+
+  private final class RingConsumer(consumerBarrier: ConsumerBarrier[_ <: AbstractEntry]) extends Consumer {
+    val p1, p2, p3, p4, p5, p6, p7: Long = -1L  // cache line padding
+    @volatile private var _sequence: Long = -1L
+    val p8, p9, p10, p11, p12, p13, p14: Long = -1L // cache line padding
+
+    override def sequence: Long = _sequence
+    override def sequence_(newSequence: Long) {
+      _sequence = newSequence
+      consumerBarrier.signalProducers()
+    }
+    override def halt() { MultiRingBatchConsumer.this.halt() }
+    override def run() { }
+  }
+
+  /** SequenceBarrier whose cursor advances whenever the sequence available from any of the barriers does, for waiting
+   *  on all at once.
+   */
+  private final class SelectBarrier extends SequenceBarrier {
+    @volatile private var alerted = false
+
+    override def waitFor(sequence: Long): Long = waitStrategy.waitFor(noConsumers, this, sequence)
+    override def waitFor(sequence: Long, timeout: Long, units: TimeUnit): Long =
+      waitStrategy.waitFor(noConsumers, this, sequence, timeout, units)
+    override def getCursor: Long = {
+      var sum = 0L
+      for (consumerBarrier <- consumerBarriers) sum += consumerBarrier.availableSequence
+      sum
+    }
+    override def availableSequence: Long = getCursor
+    override def advancesWithConsumers = true
+    override def isAlerted = alerted
+    override def alert() {
+      alerted = true
+      waitStrategy.signalAll()
+    }
+    override def clearAlert() { alerted = false }
+    override def signalProducers() { consumerBarriers.foreach(_.signalProducers()) }
+  }
+}
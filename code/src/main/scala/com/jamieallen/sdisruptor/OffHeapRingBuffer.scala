@@ -0,0 +1,235 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.concurrent.TimeUnit
+
+object OffHeapRingBuffer {
+  /** Size in bytes that each slot is padded to a multiple of.
+   */
+  val CacheLineSize = 64
+}
+
+/** Ring of fixed size slots in a direct {@link ByteBuffer} exchanged between a single producer and consumersToTrack.
+ *
+ *  The contents of the ring live outside the Java heap so its footprint on the heap does not grow with the size of
+ *  the ring, and the garbage collector has no entries to trace or card mark.  {@link FlyweightEntry}s are positioned
+ *  over the slots to read and write them; the producer has its own flyweight and each consumer thread gets one of its
+ *  own, so an entry is only valid until the next one is requested on the same thread.
+ *
+ *  Slots are padded to a whole number of cache lines and the buffer starts on a cache line boundary, so each slot
+ *  starts a line of its own and neighbouring slots never share one.
+ *
+ *  @param <T> FlyweightEntry implementation giving access to the data in a slot.
+ *  @param entryFactory to create the {@link FlyweightEntry}s positioned over the slots.
+ *  @param size of the OffHeapRingBuffer that will be rounded up to the next power of 2
+ *  @param waitStrategy employed by consumersToTrack waiting on {@link FlyweightEntry}s becoming available.
+ *  @param producerWaitStrategy employed by the producer waiting on consumersToTrack when the OffHeapRingBuffer is full.
+ */
+class OffHeapRingBuffer[T <: FlyweightEntry](entryFactory: EntryFactory[T],
+                                             size: Int,
+                                             val waitStrategy: WaitStrategy,
+                                             val producerWaitStrategy: ProducerWaitStrategy) extends ProducerBarrier[T] {
+  val p1, p2, p3, p4, p5, p6, p7: Long = -1L // cache line padding
+  @volatile private[this] var _cursor = -1L
+  val p8, p9, p10, p11, p12, p13, p14: Long = -1L // cache line padding
+
+  val sizeAsPowerOfTwo = Util.ceilingNextPowerOfTwo(size)
+  val ringModMask = sizeAsPowerOfTwo - 1
+
+  private[this] val producerEntry = entryFactory.create()
+  val slotSize = math.max(1, (producerEntry.size + OffHeapRingBuffer.CacheLineSize - 1) / OffHeapRingBuffer.CacheLineSize) *
+                 OffHeapRingBuffer.CacheLineSize
+  if (sizeAsPowerOfTwo.asInstanceOf[Long] * slotSize + OffHeapRingBuffer.CacheLineSize - 1 > Integer.MAX_VALUE)
+    throw new IllegalArgumentException("OffHeapRingBuffer of " + sizeAsPowerOfTwo + " slots of " + slotSize + " bytes exceeds 2GB")
+  val buffer = allocate(sizeAsPowerOfTwo * slotSize).order(ByteOrder.nativeOrder())
+
+  private[this] val threadEntries = new ThreadLocal[T] {
+    override protected def initialValue(): T = entryFactory.create()
+  }
+
+  private[this] val claimStrategy = new ClaimStrategy.SingleThreadedStrategy
+  private[this] var gatingSequenceCache = -1L
+  var _consumersToTrack = new Array[Consumer](0)
+  private[this] val cappedGatingConsumers = Array[Consumer](new GatingConsumer)
+
+  /** Set the consumersToTrack that will be tracked to prevent the ring wrapping.
+   *
+   *  @param consumers to be tracked.
+   */
+  def consumersToTrack_(consumers: Array[Consumer]) { _consumersToTrack = consumers }
+
+  /** Create a {@link ConsumerBarrier} that gates on the OffHeapRingBuffer and a list of {@link Consumer}s
+   *
+   *  @param consumersToTrack this barrier will track
+   *  @return the barrier gated as required
+   */
+  def createConsumerBarrier(consumersToTrack: Array[Consumer]): ConsumerBarrier[T] = new ConsumerTrackingConsumerBarrier(consumersToTrack)
+
+  /** The capacity of the OffHeapRingBuffer to hold entries.
+   *
+   *  @return the size of the OffHeapRingBuffer.
+   */
+  def capacity = sizeAsPowerOfTwo
+
+  override def cursor: Long = _cursor
+
+  override def entry(sequence: Long): T = wrap(threadEntries.get, sequence)
+
+  override def nextEntry: T = {
+    val sequence = claimStrategy.incrementAndGet()
+    ensureConsumersAreInRange(sequence)
+
+    wrap(producerEntry, sequence)
+  }
+
+  override def nextEntries(sequenceBatch: SequenceBatch): SequenceBatch = {
+    val sequence = claimStrategy.incrementAndGet(sequenceBatch.size)
+    sequenceBatch.end_(sequence)
+    ensureConsumersAreInRange(sequence)
+
+    sequenceBatch
+  }
+
+  override def tryNextEntry: T = {
+    val sequence = claimStrategy.sequence + 1
+    if (!hasCapacity(sequence)) return null.asInstanceOf[T]
+
+    claimStrategy.sequence_(sequence)
+    wrap(producerEntry, sequence)
+  }
+
+  override def tryNextEntries(sequenceBatch: SequenceBatch): SequenceBatch = {
+    val sequence = claimStrategy.sequence + sequenceBatch.size
+    if (!hasCapacity(sequence)) return null
+
+    claimStrategy.sequence_(sequence)
+    sequenceBatch.end_(sequence)
+
+    sequenceBatch
+  }
+
+  override def remainingCapacity: Long = {
+    val claimed = claimStrategy.sequence
+    val consumed = Util.getMinimumSequence(gatingConsumers)
+    capacity - (claimed - (if (consumed < claimed) consumed else claimed))
+  }
+
+  override def commit(entry: T) { publish(entry.sequence) }
+
+  override def commit(sequenceBatch: SequenceBatch) { publish(sequenceBatch.end) }
+
+  /** Allocate the buffer for the slots of the ring, which must start on a cache line boundary.  Called during
+   *  construction, so implementations must only rely on constructor parameters.
+   *
+   *  By default a direct buffer is allocated with a cache line to spare and sliced at its first aligned byte, as
+   *  JVMs after Java 6 do not align direct buffers unless run with -Dsun.nio.PageAlignDirectMemory=true.
+   *
+   *  @param capacity of the buffer in bytes.
+   *  @return the buffer for the slots.
+   */
+  protected def allocate(capacity: Int): ByteBuffer = {
+    val lineMask = OffHeapRingBuffer.CacheLineSize - 1
+    val buffer = ByteBuffer.allocateDirect(capacity + lineMask)
+    val offset = ((OffHeapRingBuffer.CacheLineSize - (SharedMemory.address(buffer) & lineMask)) & lineMask).asInstanceOf[Int]
+    buffer.position(offset).limit(offset + capacity)
+    buffer.slice()
+  }
+
+  /** Make the entries up to sequence visible to {@link Consumer}s.
+   *
+   *  @param sequence highest sequence to be made visible.
+   */
+  protected def publish(sequence: Long) {
+    _cursor = sequence
+    waitStrategy.signalAll()
+  }
+
+  /** The {@link Consumer}s the producer must not wrap, by default the consumersToTrack.
+   *
+   *  @return consumers gating the producer.
+   */
+  protected def gatingConsumers: Array[Consumer] = _consumersToTrack
+
+  /** Signal the producer, and consumers gated on it, that a {@link Consumer} using a barrier of this ring has advanced.
+   */
+  protected def signalProducers() {
+    producerWaitStrategy.signalAll()
+    waitStrategy.signalConsumerAdvanced()
+  }
+
+  /** Move both the claimed sequence and the cursor to a sequence, such as one recovered at start up.
+   *
+   *  @param sequence to continue from.
+   */
+  protected final def resetSequence(sequence: Long) {
+    claimStrategy.sequence_(sequence)
+    _cursor = sequence
+  }
+
+  private def wrap(entry: T, sequence: Long): T = {
+    entry.wrap(buffer, (sequence.asInstanceOf[Int] & ringModMask) * slotSize, sequence)
+    entry
+  }
+
+  private def hasCapacity(sequence: Long): Boolean = {
+    val wrapPoint = sequence - sizeAsPowerOfTwo
+    if (wrapPoint <= gatingSequenceCache) return true
+
+    gatingSequenceCache = cappedGatingConsumers(0).sequence
+    wrapPoint <= gatingSequenceCache
+  }
+
+  private def ensureConsumersAreInRange(sequence: Long) {
+    val wrapPoint = sequence - sizeAsPowerOfTwo
+    if (wrapPoint > gatingSequenceCache) gatingSequenceCache = producerWaitStrategy.waitFor(cappedGatingConsumers, wrapPoint)
+  }
+
+  /** Minimum of the gating consumers capped at the cursor, as for the {@link RingBuffer}, so the producer never
+   *  caches Long.MaxValue while no consumers are tracked and then runs past those tracked later.
+   */
+  private class GatingConsumer extends Consumer {
+    override def sequence: Long = {
+      val cursorSequence = cursor
+      val minimumSequence = Util.getMinimumSequence(gatingConsumers)
+      if (minimumSequence < cursorSequence) minimumSequence else cursorSequence
+    }
+    override def sequence_(newSequence: Long) { }
+    override def halt() { }
+    override def run() { }
+  }
+
+  /** ConsumerBarrier handed out for gating consumersToTrack of the OffHeapRingBuffer and dependent {@link Consumer}(s)
+   */
+  private class ConsumerTrackingConsumerBarrier(consumers: Array[Consumer]) extends ConsumerBarrier[T] {
+    @volatile private var alerted = false;
+
+    override def getEntry(sequence: Long): T = wrap(threadEntries.get, sequence)
+    override def waitFor(sequence: Long): Long = { waitStrategy.waitFor(consumers, this, sequence) }
+    override def waitFor(sequence: Long, timeout: Long, units: TimeUnit): Long = { waitStrategy.waitFor(consumers, this, sequence, timeout, units) }
+    override def getCursor = cursor
+    override def availableSequence = if (0 == consumers.length) cursor else Util.getMinimumSequence(consumers)
+    override def isAlerted = alerted
+    override def alert() {
+      alerted = true
+      waitStrategy.signalAll()
+    }
+    override def clearAlert() { alerted = false }
+    override def signalProducers() { OffHeapRingBuffer.this.signalProducers() }
+  }
+}
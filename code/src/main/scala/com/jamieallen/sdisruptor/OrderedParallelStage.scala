@@ -0,0 +1,61 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** Stage of a pipeline where a pool of workers handles {@link AbstractEntry}s in parallel and out of order, while
+ *  {@link Consumer}s depending on the stage only ever see the entries in sequence order once they are completed.
+ *
+ *  The stage is a {@link PartitionedConsumerGroup} partitioned by sequence, so entries are striped over the workers.
+ *  As every worker advances its sequence over the whole batch, the minimum sequence of the workers is the highest
+ *  sequence up to which every entry has been completed, which is what {@link #consumer} exposes as a single gating
+ *  sequence for {@link RingBuffer#createConsumerBarrier(Array)} and {@link RingBuffer#consumersToTrack_(Array)}.
+ *
+ *  Striping needs no contended claim per entry so throughput scales with the workers for CPU bound handlers of
+ *  even cost, an expensive entry holds back the completed sequence until its worker has finished it.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param consumerBarrier on which the workers wait for entries.
+ *  @param handlers one for each worker.
+ */
+class OrderedParallelStage[T <: AbstractEntry](consumerBarrier: ConsumerBarrier[T], handlers: Array[BatchHandler[T]])
+    extends PartitionedConsumerGroup[T](consumerBarrier, new OrderedParallelStage.SequenceKey[T], handlers) {
+  private[this] val stageConsumer = new StageConsumer
+
+  /** Get the {@link Consumer} giving the highest sequence up to which every entry has been completed by the stage.
+   *  Running it does nothing, the workers are run with {@link #start(Executor)}.  Its sequence follows the workers
+   *  so it cannot be set, which rules out {@link RingBuffer#addConsumer(Consumer)}.
+   *
+   *  @return gating {@link Consumer} for the stage.
+   */
+  def consumer: Consumer = stageConsumer
+
+  private final class StageConsumer extends Consumer {
+    override def sequence: Long = OrderedParallelStage.this.sequence
+    override def sequence_(newSequence: Long) {
+      throw new IllegalStateException("The sequence of an OrderedParallelStage follows its workers")
+    }
+    override def halt() { OrderedParallelStage.this.halt() }
+    override def run() { }
+  }
+}
+
+object OrderedParallelStage {
+  /** Stripes entries over the workers by sequence.
+   */
+  private final class SequenceKey[T <: AbstractEntry] extends PartitionKey[T] {
+    override def hash(entry: T): Int = (entry.sequence & Int.MaxValue).asInstanceOf[Int]
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** Key of an {@link AbstractEntry} used by a {@link PartitionedConsumerGroup} to choose the partition that handles it,
+ *  so that all the entries with the same key are handled in order by the same {@link BatchHandler}.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+trait PartitionKey[T <: AbstractEntry] {
+  /** Get the hash of the key of an entry, entries with equal keys must have equal hashes.
+   *
+   *  @param entry committed to the {@link RingBuffer}
+   *  @return hash of the key of the entry.
+   */
+  def hash(entry: T): Int
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.util.concurrent.Executor
+
+/** Group of {@link BatchConsumer}s sharing one {@link ConsumerBarrier} where each consumer handles only the
+ *  {@link AbstractEntry}s whose {@link PartitionKey} hash maps to its partition.  Entries with the same key are
+ *  handled in order by one thread while entries with different keys are handled in parallel.
+ *
+ *  Every consumer advances its sequence over the entries of the other partitions, so the group is given to
+ *  {@link RingBuffer#consumersToTrack_(Array)} and {@link RingBuffer#createConsumerBarrier(Array)} like any other
+ *  set of {@link Consumer}s, and {@link #sequence} is the sequence up to which the whole group has consumed.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param consumerBarrier on which the consumers wait for entries.
+ *  @param partitionKey giving the hash of the key of each entry.
+ *  @param handlers one for each partition.
+ */
+class PartitionedConsumerGroup[T <: AbstractEntry](consumerBarrier: ConsumerBarrier[T],
+                                                   partitionKey: PartitionKey[T],
+                                                   handlers: Array[BatchHandler[T]]) {
+  if (handlers.length == 0) throw new IllegalArgumentException("At least one BatchHandler is required")
+
+  private[this] val partitions = handlers.length
+  private[this] val batchConsumers = handlers.zipWithIndex.map { case (handler, partition) =>
+    new BatchConsumer[T](consumerBarrier, new PartitionHandler(handler, partition))
+  }
+  private[this] val groupConsumers: Array[Consumer] = batchConsumers.map(_.asInstanceOf[Consumer])
+
+  /** Get the consumers of the group, in partition order.
+   *
+   *  @return a {@link Consumer} for each partition.
+   */
+  def consumers: Array[Consumer] = groupConsumers
+
+  /** Get the sequence up to which every partition has consumed {@link AbstractEntry}s
+   *
+   *  @return the minimum sequence of the consumers of the group.
+   */
+  def sequence: Long = Util.getMinimumSequence(groupConsumers)
+
+  /** Get the partition that handles an entry.
+   *
+   *  @param entry committed to the {@link RingBuffer}
+   *  @return index of the partition in the handlers.
+   */
+  def partitionOf(entry: T): Int = (partitionKey.hash(entry) & Int.MaxValue) % partitions
+
+  /** Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link BatchHandler}s
+   *
+   *  @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  def exceptionHandler_(exceptionHandler: ExceptionHandler) { batchConsumers.foreach(_.exceptionHandler_(exceptionHandler)) }
+
+  /** Run each consumer on the executor, which needs a thread for every partition.
+   *
+   *  @param executor to run the consumers.
+   */
+  def start(executor: Executor) { batchConsumers.foreach(executor.execute(_)) }
+
+  /** Halt every consumer.
+   */
+  def halt() { batchConsumers.foreach(_.halt()) }
+
+  private final class PartitionHandler(handler: BatchHandler[T], partition: Int) extends BatchHandler[T] with LifecycleAware {
+    override def onAvailable(entry: T) { if (partitionOf(entry) == partition) handler.onAvailable(entry) }
+
+    override def onEndOfBatch() { handler.onEndOfBatch() }
+
+    override def onStart() { if (handler.isInstanceOf[LifecycleAware]) handler.asInstanceOf[LifecycleAware].onStart() }
+
+    override def onShutdown() { if (handler.isInstanceOf[LifecycleAware]) handler.asInstanceOf[LifecycleAware].onShutdown() }
+  }
+}
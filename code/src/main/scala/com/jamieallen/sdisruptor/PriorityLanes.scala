@@ -0,0 +1,92 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** Lanes of {@link RingBuffer}s holding the same type of {@link AbstractEntry} behind a single consumer thread, so
+ *  latency critical entries published to a higher priority lane are not queued behind bulk traffic in a lower one.
+ *
+ *  Lanes are given highest priority first.  With {@link MultiRingBatchConsumer#Priority} a lane is only consumed
+ *  while no higher lane has entries available, with {@link MultiRingBatchConsumer#Weighted} each lane is consumed in
+ *  turn for up to its weight in entries, see {@link #weights_(Array)}.  With strict priority a lower lane is consumed
+ *  {@link MultiRingBatchConsumer#PriorityBatchSize} entries at a time unless weights are set, which bounds how long
+ *  an entry arriving in a higher lane waits behind it.  The consumer is added to each lane with
+ *  {@link RingBuffer#addConsumer(Consumer)} so the lanes are gated on it.
+ *
+ *  The consumer waits on the {@link WaitStrategy} of the lanes, so producers signal it when they commit.  Lanes using
+ *  a strategy that blocks or parks must share one instance, only spinning and yielding strategies may differ.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param lanes to consume from, highest priority first.
+ *  @param handler to which the entries of every lane are delegated.
+ *  @param selectOption {@link MultiRingBatchConsumer#Priority} or {@link MultiRingBatchConsumer#Weighted}.
+ */
+class PriorityLanes[T <: AbstractEntry](lanes: Array[RingBuffer[T]],
+                                        handler: BatchHandler[T],
+                                        selectOption: String) extends Runnable {
+  if (selectOption == MultiRingBatchConsumer.Fair) throw new IllegalArgumentException("Lanes are consumed by priority")
+  if (lanes.length == 0) throw new IllegalArgumentException("At least one lane is required")
+  if (lanes.exists(lane => (lane.waitStrategy ne lanes(0).waitStrategy) && (isSignalled(lane.waitStrategy) || isSignalled(lanes(0).waitStrategy))))
+    throw new IllegalArgumentException("Lanes with a blocking or parking WaitStrategy must share one instance")
+
+  private[this] val multiRingConsumer =
+    new MultiRingBatchConsumer(lanes.map(lane => lane.createConsumerBarrier(new Array[Consumer](0)): ConsumerBarrier[_ <: AbstractEntry]),
+                               Array.fill[BatchHandler[_ <: AbstractEntry]](lanes.length)(handler),
+                               lanes(0).waitStrategy, selectOption)
+
+  for (i <- 0 until lanes.length) lanes(i).addConsumer(multiRingConsumer.consumer(i))
+
+  /** Get the {@link RingBuffer} of a lane for publishing to.
+   *
+   *  @param priority of the lane, 0 being the highest.
+   *  @return the ring of the lane.
+   */
+  def lane(priority: Int): RingBuffer[T] = lanes(priority)
+
+  /** Get the {@link Consumer} giving the sequence consumed from a lane, for dependent {@link Consumer}s to gate on.
+   *
+   *  @param priority of the lane, 0 being the highest.
+   *  @return gating {@link Consumer} for the lane.
+   */
+  def consumer(priority: Int): Consumer = multiRingConsumer.consumer(priority)
+
+  /** Get the number of entries published to a lane and not yet consumed.
+   *
+   *  @param priority of the lane, 0 being the highest.
+   *  @return the backlog of the lane.
+   */
+  def backlog(priority: Int): Long = multiRingConsumer.backlog(priority)
+
+  /** Set the maximum number of entries consumed from each lane at a time.  Must be set before the lanes are run.
+   *
+   *  @param weights one for each lane, highest priority first.
+   */
+  def weights_(weights: Array[Int]) { multiRingConsumer.weights_(weights) }
+
+  /** Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link BatchHandler}
+   *
+   *  @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  def exceptionHandler_(exceptionHandler: ExceptionHandler) { multiRingConsumer.exceptionHandler_(exceptionHandler) }
+
+  /** Signal that the consumer should stop once it has finished the batch in hand.
+   */
+  def halt() { multiRingConsumer.halt() }
+
+  override def run() { multiRingConsumer.run() }
+
+  private def isSignalled(waitStrategy: WaitStrategy) =
+    !(waitStrategy.isInstanceOf[WaitStrategy.BusySpinStrategy] || waitStrategy.isInstanceOf[WaitStrategy.YieldingStrategy])
+}
@@ -46,6 +46,27 @@ trait ProducerBarrier[T <: AbstractEntry] {
    */
   def nextEntries(sequenceBatch: SequenceBatch): SequenceBatch
 
+  /** Claim the next {@link AbstractEntry} in sequence only if the {@link RingBuffer} has capacity for it,
+   *  otherwise return immediately without claiming rather than waiting for {@link Consumer}s to catch up.
+   *
+   *  @return the claimed {@link AbstractEntry} or null if the {@link RingBuffer} is full.
+   */
+  def tryNextEntry: T
+
+  /** Claim the next batch of {@link AbstractEntry}s in sequence only if the {@link RingBuffer} has capacity
+   *  for the whole batch, otherwise return immediately without claiming.
+   *
+   *  @param sequenceBatch to be updated for the batch range.
+   *  @return the updated sequenceBatch or null if the {@link RingBuffer} does not have capacity for the batch.
+   */
+  def tryNextEntries(sequenceBatch: SequenceBatch): SequenceBatch
+
+  /** Get the number of {@link AbstractEntry}s that can be claimed before the slowest tracked {@link Consumer} gates producers.
+   *
+   *  @return the remaining capacity of the {@link RingBuffer}.
+   */
+  def remainingCapacity: Long
+
   /** Commit an entry back to the {@link RingBuffer} to make it visible to {@link Consumer}s
    *  @param entry to be committed back to the {@link RingBuffer}
    */
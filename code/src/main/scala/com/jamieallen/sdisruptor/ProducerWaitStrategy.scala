@@ -0,0 +1,139 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.util.concurrent.locks.{LockSupport, ReentrantLock}
+
+object ProducerWaitStrategy {
+  val Blocking = "blocking"
+  val BusySpin = "busySpin"
+  val Parking = "parking"
+  val Yielding = "yielding"
+
+	def newInstance(option: String): ProducerWaitStrategy = {
+	  option match {
+	    case Blocking => new BlockingStrategy
+	    case BusySpin => new BusySpinStrategy
+	    case Parking => new ParkingStrategy(1L)
+	    case Yielding => new YieldingStrategy
+	  }
+	}
+
+  /** Blocking strategy that parks producers on a condition variable until a {@link Consumer} signals it has advanced.
+   *
+   *  Consumers only take the lock to signal when a producer is actually waiting.  Every tracked {@link Consumer} must
+   *  signal through its {@link ConsumerBarrier#signalProducers()} as it advances, which {@link BatchConsumer} does.
+   */
+  class BlockingStrategy extends ProducerWaitStrategy {
+    private val lock = new ReentrantLock()
+    private val capacityAvailableCondition = lock.newCondition()
+    @volatile private var waitingProducers = 0
+
+    override def waitFor(consumers: Array[Consumer], wrapPoint: Long) = {
+      var minimumSequence = Util.getMinimumSequence(consumers)
+      if (wrapPoint > minimumSequence) {
+        lock.lock()
+        try {
+          waitingProducers += 1
+          minimumSequence = Util.getMinimumSequence(consumers)
+          while (wrapPoint > minimumSequence) {
+            capacityAvailableCondition.await()
+            minimumSequence = Util.getMinimumSequence(consumers)
+          }
+        }
+        finally {
+          waitingProducers -= 1
+          lock.unlock()
+        }
+      }
+
+      minimumSequence
+    }
+
+    override def signalAll() {
+      if (0 != waitingProducers) {
+        lock.lock()
+        try { capacityAvailableCondition.signalAll() }
+        finally { lock.unlock() }
+      }
+    }
+  }
+
+  /** Busy spin strategy for producers that must resume the instant a {@link Consumer} advances and can dedicate a core to it.
+   */
+  class BusySpinStrategy extends ProducerWaitStrategy {
+    override def waitFor(consumers: Array[Consumer], wrapPoint: Long) = {
+      var minimumSequence = Util.getMinimumSequence(consumers)
+      while (wrapPoint > minimumSequence) minimumSequence = Util.getMinimumSequence(consumers)
+
+      minimumSequence
+    }
+
+    override def signalAll() { }
+  }
+
+  /** Parking strategy that sleeps the producer for parkNanos between checks of the {@link Consumer}s.
+   *
+   *  This strategy uses very little CPU while the ring is full at the cost of the park granularity of the OS on wake up.
+   *
+   *  @param parkNanos to park the producer for between checks.
+   */
+  class ParkingStrategy(parkNanos: Long) extends ProducerWaitStrategy {
+    override def waitFor(consumers: Array[Consumer], wrapPoint: Long) = {
+      var minimumSequence = Util.getMinimumSequence(consumers)
+      while (wrapPoint > minimumSequence) {
+        LockSupport.parkNanos(parkNanos)
+        minimumSequence = Util.getMinimumSequence(consumers)
+      }
+
+      minimumSequence
+    }
+
+    override def signalAll() { }
+  }
+
+  /** Yielding strategy that uses a Thread.yield() between checks of the {@link Consumer}s.
+   */
+  class YieldingStrategy extends ProducerWaitStrategy {
+    override def waitFor(consumers: Array[Consumer], wrapPoint: Long) = {
+      var minimumSequence = Util.getMinimumSequence(consumers)
+      while (wrapPoint > minimumSequence) {
+        Thread.`yield`()
+        minimumSequence = Util.getMinimumSequence(consumers)
+      }
+
+      minimumSequence
+    }
+
+    override def signalAll() { }
+  }
+}
+
+/** Strategy employed for making producers wait when the {@link RingBuffer} is full because tracked {@link Consumer}s have fallen behind.
+ */
+trait ProducerWaitStrategy {
+  /** Wait for the slowest of the {@link Consumer}s to reach the wrap point so the claimed sequence can be used.
+   *
+   *  @param consumers tracked by the {@link RingBuffer} to prevent it wrapping.
+   *  @param wrapPoint sequence the slowest consumer must have reached.
+   *  @return the minimum sequence of the consumers which will be at least the wrap point.
+   */
+  def waitFor(consumers: Array[Consumer], wrapPoint: Long): Long
+
+  /** Signal producers waiting for capacity that a {@link Consumer} has advanced.
+   */
+  def signalAll()
+}
@@ -16,48 +16,187 @@
 package com.jamieallen.sdisruptor
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.{AtomicLongFieldUpdater, AtomicReferenceFieldUpdater}
+
+object RingBuffer {
+  /** Consumer added with {@link RingBuffer#addConsumer(Consumer, String)} joins at the cursor and only sees
+   *  {@link AbstractEntry}s committed after it was added.
+   */
+  val StartAtCursor = "startAtCursor"
+  /** Consumer added with {@link RingBuffer#addConsumer(Consumer, String)} starts from the oldest
+   *  {@link AbstractEntry} still held in the ring that the producers cannot yet overwrite.
+   */
+  val StartAtOldestAvailable = "startAtOldestAvailable"
+
+  /** Create a {@link RingBuffer} specialised for the claim strategy option given.
+   *
+   *  @param entryFactory to create {@link AbstractEntry}s for filling the RingBuffer
+   *  @param size of the RingBuffer that will be rounded up to the next power of 2
+   *  @param claimStrategyOption threading strategy for producers claiming {@link AbstractEntry}s in the ring, defaults to {@link ClaimStrategy#MultiThreaded}.
+   *  @param waitStrategyOption waiting strategy employed by consumersToTrack waiting on {@link AbstractEntry}s becoming available, defaults to {@link WaitStrategy#Blocking}.
+   *  @return the RingBuffer implementation for the claim strategy.
+   */
+  def newInstance[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[T], size: Int,
+                                                      claimStrategyOption: String, waitStrategyOption: String): RingBuffer[T] = {
+    val waitStrategy = WaitStrategy.newInstance(if (waitStrategyOption == null) WaitStrategy.Blocking else waitStrategyOption)
+    val producerWaitStrategy = new ProducerWaitStrategy.YieldingStrategy
+
+    (if (claimStrategyOption == null) ClaimStrategy.MultiThreaded else claimStrategyOption) match {
+      case ClaimStrategy.SingleThreaded => new SingleProducerRingBuffer[T](entryFactory, size, waitStrategy, producerWaitStrategy)
+      case ClaimStrategy.MultiThreaded => new MultiProducerRingBuffer[T](entryFactory, size, waitStrategy, producerWaitStrategy)
+      case ClaimStrategy.MultiThreadedLowContention =>
+        new LowContentionMultiProducerRingBuffer[T](entryFactory, size, waitStrategy, producerWaitStrategy)
+    }
+  }
+
+  /** Start building a {@link RingBuffer} where the producer threading model is chosen by type rather than by option.
+   *
+   *  @param entryFactory to create {@link AbstractEntry}s for filling the RingBuffer
+   *  @return the builder.
+   */
+  def builder[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[T]) = new Builder[T](entryFactory)
+
+  /** Builder for {@link RingBuffer}s. Size defaults to 1024, the wait strategy to {@link WaitStrategy.BlockingStrategy}
+   *  and the producer wait strategy to {@link ProducerWaitStrategy.YieldingStrategy}.
+   */
+  class Builder[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[T]) {
+    private var _size = 1024
+    private var _waitStrategy: WaitStrategy = null
+    private var _producerWaitStrategy: ProducerWaitStrategy = null
+
+    def size(size: Int): Builder[T] = {
+      _size = size
+      this
+    }
+
+    def waitStrategy(waitStrategy: WaitStrategy): Builder[T] = {
+      _waitStrategy = waitStrategy
+      this
+    }
+
+    def producerWaitStrategy(producerWaitStrategy: ProducerWaitStrategy): Builder[T] = {
+      _producerWaitStrategy = producerWaitStrategy
+      this
+    }
+
+    def singleProducer(): SingleProducerRingBuffer[T] =
+      new SingleProducerRingBuffer[T](entryFactory, _size, waitStrategyOrDefault, producerWaitStrategyOrDefault)
+    def multiProducer(): MultiProducerRingBuffer[T] =
+      new MultiProducerRingBuffer[T](entryFactory, _size, waitStrategyOrDefault, producerWaitStrategyOrDefault)
+    def lowContentionMultiProducer(): LowContentionMultiProducerRingBuffer[T] =
+      new LowContentionMultiProducerRingBuffer[T](entryFactory, _size, waitStrategyOrDefault, producerWaitStrategyOrDefault)
+
+    private def waitStrategyOrDefault = if (_waitStrategy != null) _waitStrategy else new WaitStrategy.BlockingStrategy
+    private def producerWaitStrategyOrDefault = if (_producerWaitStrategy != null) _producerWaitStrategy else new ProducerWaitStrategy.YieldingStrategy
+  }
+}
 
 /** Ring based store of reusable entries containing the data representing an {@link AbstractEntry} being exchanged between producers and consumersToTrack.
+ *
+ *  Each claim strategy has its own subclass so the claim and commit paths carry no branching on configuration,
+ *  use {@link RingBuffer#builder(EntryFactory)} or {@link RingBuffer#newInstance} to create one.
  *
  *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
  *  @param entryFactory to create {@link AbstractEntry}s for filling the RingBuffer
  *  @param size of the RingBuffer that will be rounded up to the next power of 2
- *  @param claimStrategyOption threading strategy for producers claiming {@link AbstractEntry}s in the ring.
- *  @param waitStrategyOption waiting strategy employed by consumersToTrack waiting on {@link AbstractEntry}s becoming available.
+ *  @param waitStrategy employed by consumersToTrack waiting on {@link AbstractEntry}s becoming available.
+ *  @param producerWaitStrategy employed by producers waiting on consumersToTrack when the RingBuffer is full.
  */
-class RingBuffer[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[T], 
-    								size: Int,
-                    var claimStrategyOption: String,
-                    var waitStrategyOption: String) extends ProducerBarrier[T] {
-  if (claimStrategyOption == null) claimStrategyOption = ClaimStrategy.MultiThreaded
-  if (waitStrategyOption == null) waitStrategyOption = WaitStrategy.Blocking
-
-
+abstract class RingBuffer[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[T],
+                                                              size: Int,
+                                                              val waitStrategy: WaitStrategy,
+                                                              val producerWaitStrategy: ProducerWaitStrategy) extends ProducerBarrier[T] {
   val p1, p2, p3, p4, p5, p6, p7: Long = -1L // cache line padding
-  @volatile private var _cursor = -1L
+  @volatile private[this] var _cursor = -1L
   val p8, p9, p10, p11, p12, p13, p14: Long = -1L // cache line padding
 
   val sizeAsPowerOfTwo = Util.ceilingNextPowerOfTwo(size)
   val ringModMask = sizeAsPowerOfTwo - 1
   val entries: Array[T] = new Array[T](sizeAsPowerOfTwo)
-  
-  var lastTrackedConsumerMin = -1L
-  var _consumersToTrack = new Array[Consumer](0)
 
-  var claimStrategy: ClaimStrategy = ClaimStrategy.newInstance(claimStrategyOption)
-  var waitStrategy: WaitStrategy = WaitStrategy.newInstance(waitStrategyOption)
+  private val cursorUpdater = AtomicLongFieldUpdater.newUpdater(classOf[RingBuffer[_]], "_cursor")
+
+  // Minimum consumer sequence last seen by a producer.  Volatile so multiple producers never see a torn value,
+  // a stale value is always safe as consumer sequences only move forward.
+  @volatile private[this] var gatingSequenceCache = -1L
+
+  // Copy on write so producers read the tracked consumers without locking, changed by CAS in addConsumer and removeConsumer.
+  @volatile private[this] var _consumersToTrack = new Array[Consumer](0)
+  private val consumersToTrackUpdater =
+    AtomicReferenceFieldUpdater.newUpdater(classOf[RingBuffer[_]], classOf[Array[Consumer]], "_consumersToTrack")
+  private[this] val gatingConsumers = Array[Consumer](new GatingConsumer)
 
   fill(entryFactory);
 
-  /** Set the consumersToTrack that will be tracked to prevent the ring wrapping.
+  /** Set the consumersToTrack that will be tracked to prevent the ring wrapping, replacing any already tracked.
    *
-   *  This method must be called prior to claiming entries in the RingBuffer otherwise
-   *  a NullPointerException will be thrown.
+   *  Use {@link #addConsumer(Consumer)} and {@link #removeConsumer(Consumer)} to change the tracked
+   *  {@link Consumer}s while producers are claiming.
    *
    *  @param consumers to be tracked.
    */
   def consumersToTrack_(consumers: Array[Consumer]) { _consumersToTrack = consumers }
 
+  /** Get the {@link Consumer}s currently tracked to prevent the ring wrapping.
+   *
+   *  @return the tracked consumers.
+   */
+  def consumersToTrack: Array[Consumer] = _consumersToTrack
+
+  /** Add a {@link Consumer} to be tracked to prevent the ring wrapping, which is safe while producers are claiming.
+   *
+   *  The consumer joins at the current cursor, so it must be added before it is run and only sees
+   *  {@link AbstractEntry}s committed after it was added.
+   *
+   *  @param consumer to be tracked.
+   */
+  def addConsumer(consumer: Consumer) { addConsumer(consumer, RingBuffer.StartAtCursor) }
+
+  /** Add a {@link Consumer} to be tracked to prevent the ring wrapping, which is safe while producers are claiming.
+   *  The consumer must be added before it is run.
+   *
+   *  With {@link RingBuffer#StartAtOldestAvailable} a restarted or late consumer recovers the recent entries still
+   *  held in the ring, starting after max(cursor - capacity, sequence of the slowest other tracked consumer).  Entries
+   *  the slowest consumer has passed may already be overwritten, so with no other consumer tracked it joins at the cursor.
+   *
+   *  @param consumer to be tracked.
+   *  @param startOption {@link RingBuffer#StartAtCursor} or {@link RingBuffer#StartAtOldestAvailable}.
+   */
+  def addConsumer(consumer: Consumer, startOption: String) {
+    var current: Array[Consumer] = null
+    var updated: Array[Consumer] = null
+    do {
+      current = _consumersToTrack
+      updated = java.util.Arrays.copyOf(current, current.length + 1)
+      updated(current.length) = consumer
+      consumer.sequence_(startSequence(current, startOption))
+    }
+    while (!consumersToTrackUpdater.compareAndSet(this, current, updated))
+
+    // the ring may have moved on before producers saw the consumer, so join where it is now
+    consumer.sequence_(startSequence(current, startOption))
+  }
+
+  /** Stop tracking a {@link Consumer}, which is safe while producers are claiming.  Producers waiting on the
+   *  consumer stop gating on it immediately.
+   *
+   *  @param consumer to stop tracking.
+   *  @return true if the consumer was being tracked.
+   */
+  def removeConsumer(consumer: Consumer): Boolean = {
+    var current: Array[Consumer] = null
+    var updated: Array[Consumer] = null
+    do {
+      current = _consumersToTrack
+      if (!current.exists(_ eq consumer)) return false
+      updated = current.filterNot(_ eq consumer)
+    }
+    while (!consumersToTrackUpdater.compareAndSet(this, current, updated))
+
+    producerWaitStrategy.signalAll()
+    true
+  }
+
   /** Create a {@link ConsumerBarrier} that gates on the RingBuffer and a list of {@link Consumer}s
    *
    *  @param consumersToTrack this barrier will track
@@ -85,7 +224,7 @@ class RingBuffer[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[
   def entry(sequence: Long): T = entries(sequence.asInstanceOf[Int] & ringModMask).asInstanceOf[T]
 
   override def nextEntry(): T = { 
-    val sequence = claimStrategy.incrementAndGet()
+    val sequence = claim(1)
     ensureConsumersAreInRange(sequence)
 
     val entry = entries(sequence.asInstanceOf[Int] & ringModMask)
@@ -94,22 +233,44 @@ class RingBuffer[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[
     entry.asInstanceOf[T]
   }
 
-  override def commit(entry: T) { commit(entry.sequence, 1) }
+  override def commit(entry: T) { publish(entry.sequence, 1) }
 
   override def nextEntries(sequenceBatch: SequenceBatch): SequenceBatch = {
-    val sequence = claimStrategy.incrementAndGet(sequenceBatch.size)
+    val sequence = claim(sequenceBatch.size)
     sequenceBatch.end_(sequence);
     ensureConsumersAreInRange(sequence);
-
-    for (i <- sequenceBatch.getStart until sequenceBatch.end) {
-      val entry = entries(i.asInstanceOf[Int] & ringModMask)
-      entry.sequence_(i)
-    }
+    setSequences(sequenceBatch)
 
     return sequenceBatch;
   }
 
-  override def commit(sequenceBatch: SequenceBatch): Unit = { commit(sequenceBatch.end, sequenceBatch.size) }
+  override def tryNextEntry(): T = {
+    val sequence = tryClaim(1)
+    if (sequence < 0) return null.asInstanceOf[T]
+
+    val entry = entries(sequence.asInstanceOf[Int] & ringModMask)
+    entry.sequence_(sequence)
+
+    entry.asInstanceOf[T]
+  }
+
+  override def tryNextEntries(sequenceBatch: SequenceBatch): SequenceBatch = {
+    val sequence = tryClaim(sequenceBatch.size)
+    if (sequence < 0) return null
+
+    sequenceBatch.end_(sequence)
+    setSequences(sequenceBatch)
+
+    sequenceBatch
+  }
+
+  override def remainingCapacity: Long = {
+    val claimed = claimedSequence
+    val consumed = Util.getMinimumSequence(_consumersToTrack)
+    capacity - (claimed - (if (consumed < claimed) consumed else claimed))
+  }
+
+  override def commit(sequenceBatch: SequenceBatch): Unit = { publish(sequenceBatch.end, sequenceBatch.size) }
 
   /** Claim a specific sequence in the {@link RingBuffer} when only one producer is involved.
    *
@@ -130,53 +291,125 @@ class RingBuffer[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[
    *  @param entry to be committed back to the {@link RingBuffer}
    */
   def commitWithForce(entry: T) {
-    claimStrategy.sequence_(entry.sequence)
+    forceClaimedSequence(entry.sequence)
     _cursor = entry.sequence
     waitStrategy.signalAll()
   }
 
-  private def ensureConsumersAreInRange(sequence: Long) {
-    val wrapPoint = sequence - entries.length;
-    while (wrapPoint > lastTrackedConsumerMin &&
-           wrapPoint > Util.getMinimumSequence(_consumersToTrack)) {
-      lastTrackedConsumerMin = Util.getMinimumSequence(_consumersToTrack);
-      Thread.`yield`()
-    }
+  /** Claim the next delta sequences for a producer.
+   *
+   *  @param delta number of sequences to claim.
+   *  @return the highest sequence claimed.
+   */
+  protected def claim(delta: Int): Long
+
+  /** Claim the next delta sequences for a producer only if the {@link RingBuffer} has capacity for them.
+   *
+   *  @param delta number of sequences to claim.
+   *  @return the highest sequence claimed or -1 if the {@link RingBuffer} does not have capacity.
+   */
+  protected def tryClaim(delta: Int): Long
+
+  /** Get the sequence most recently claimed by a producer.
+   *
+   *  @return the last claimed sequence.
+   */
+  protected def claimedSequence: Long
+
+  /** Reset the claim sequence to a value forced by {@link #commitWithForce(AbstractEntry)}.
+   *
+   *  @param sequence to be set as the last claimed.
+   */
+  protected def forceClaimedSequence(sequence: Long)
+
+  /** Make the claimed batch ending at sequence visible to {@link Consumer}s.
+   *
+   *  @param sequence highest sequence in the batch.
+   *  @param batchSize number of entries in the batch.
+   */
+  protected def publish(sequence: Long, batchSize: Long)
+
+  protected final def cursor_(sequence: Long) { _cursor = sequence }
+
+  protected final def compareAndSetCursor(expected: Long, sequence: Long): Boolean = cursorUpdater.compareAndSet(this, expected, sequence)
+
+  /** Check, without waiting, that claiming up to a sequence will not wrap the slowest tracked {@link Consumer}.
+   *
+   *  @param sequence to be claimed up to.
+   *  @return true if the {@link RingBuffer} has capacity up to the sequence.
+   */
+  protected final def hasCapacity(sequence: Long): Boolean = {
+    val wrapPoint = sequence - entries.length
+    if (wrapPoint <= gatingSequenceCache) return true
+
+    val minimumSequence = gatingConsumers(0).sequence
+    gatingSequenceCache = minimumSequence
+    wrapPoint <= minimumSequence
+  }
+
+  private def startSequence(otherConsumers: Array[Consumer], startOption: String): Long = startOption match {
+    case RingBuffer.StartAtCursor => _cursor
+    case RingBuffer.StartAtOldestAvailable =>
+      val cursorSequence = _cursor
+      val slowestSequence = Util.getMinimumSequence(otherConsumers)
+      val oldestSequence = cursorSequence - entries.length
+      if (slowestSequence >= cursorSequence) cursorSequence
+      else if (slowestSequence > oldestSequence) slowestSequence
+      else oldestSequence
+    case _ => throw new IllegalArgumentException("Unknown start option: " + startOption)
   }
 
-  private def commit(sequence: Long, batchSize: Long) {
-    if (ClaimStrategy.MultiThreaded == claimStrategyOption) {
-      val expectedSequence = sequence - batchSize
-      var counter = 1000
-      while (expectedSequence != cursor) {
-        counter -= 1
-        if (0 == counter) {
-          counter = 1000
-          Thread.`yield`()
-        }
-      }
+  private def setSequences(sequenceBatch: SequenceBatch) {
+    var i = sequenceBatch.getStart
+    while (i <= sequenceBatch.end) {
+      entries(i.asInstanceOf[Int] & ringModMask).sequence_(i)
+      i += 1
     }
+  }
 
-    _cursor = sequence
-    waitStrategy.signalAll();
+  private def ensureConsumersAreInRange(sequence: Long) {
+    val wrapPoint = sequence - entries.length
+    if (wrapPoint > gatingSequenceCache) gatingSequenceCache = producerWaitStrategy.waitFor(gatingConsumers, wrapPoint)
   }
 
   private def fill(entryFactory: EntryFactory[T]) { for (i <- 0 until entries.length) entries(i) = entryFactory.create() }
 
+  /** Minimum of the consumersToTrack, read afresh on every check so producers waiting for capacity see
+   *  {@link Consumer}s added and removed while they wait.
+   *
+   *  Capped at the cursor read before the consumers, so a producer never caches a gating sequence beyond where a
+   *  {@link Consumer} added concurrently joins, nor Long.MaxValue while no consumers are tracked.
+   */
+  private class GatingConsumer extends Consumer {
+    override def sequence: Long = {
+      val cursorSequence = cursor
+      val minimumSequence = Util.getMinimumSequence(consumersToTrack)
+      if (minimumSequence < cursorSequence) minimumSequence else cursorSequence
+    }
+    override def sequence_(newSequence: Long) { }
+    override def halt() { }
+    override def run() { }
+  }
+
   /** ConsumerBarrier handed out for gating consumersToTrack of the RingBuffer and dependent {@link Consumer}(s)
    */
   private class ConsumerTrackingConsumerBarrier(consumers: Array[Consumer]) extends ConsumerBarrier[T] {
     @volatile private var alerted = false;
 
     override def getEntry(sequence: Long): T = { entries(sequence.asInstanceOf[Int] & ringModMask).asInstanceOf[T] }
-    override def waitFor(sequence: Long): Long = { waitStrategy.waitFor(consumers, RingBuffer.this, this, sequence) }
-    override def waitFor(sequence: Long, timeout: Long, units: TimeUnit): Long = { waitStrategy.waitFor(consumers, RingBuffer.this, this, sequence, timeout, units) }
+    override def waitFor(sequence: Long): Long = { waitStrategy.waitFor(consumers, this, sequence) }
+    override def waitFor(sequence: Long, timeout: Long, units: TimeUnit): Long = { waitStrategy.waitFor(consumers, this, sequence, timeout, units) }
     override def getCursor = cursor
+    override def availableSequence = if (0 == consumers.length) cursor else Util.getMinimumSequence(consumers)
     override def isAlerted = alerted
     override def alert() {
       alerted = true
       waitStrategy.signalAll()
     }
     override def clearAlert() { alerted = false }
+    override def signalProducers() {
+      producerWaitStrategy.signalAll()
+      waitStrategy.signalConsumerAdvanced()
+    }
   }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.io.File
+import java.io.FilenameFilter
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.util.zip.CRC32
+
+object SegmentedJournal {
+  val SegmentSuffix = ".journal"
+  val IndexSuffix = ".index"
+
+  /** Bytes in each index entry: the sequence, the time it was journalled and its offset in the segment.
+   */
+  val IndexEntrySize = 24
+  val IndexTimeOffset = 8
+  val IndexPositionOffset = 16
+}
+
+/** Layout of a journal rolled over a directory of segment files, each with a sparse index of the records in it.
+ *
+ *  A segment holds records in the format of a {@link JournalingBatchHandler} journal and is named after the sequence of
+ *  its first record.  Its index file holds an entry of sequence, time journalled and offset for the first record and
+ *  for every indexInterval records after it, so a {@link SegmentedJournalReader} can binary search first the segments
+ *  and then the index of one segment for where to start.  Written by a {@link SegmentedJournalingBatchHandler}.
+ *
+ *  @param directory holding the segment and index files, created if it does not exist.
+ *  @param segmentSize number of bytes after which a new segment is started, segments are mapped so it may not
+ *                     exceed Int.MaxValue.
+ *  @param indexInterval number of records between index entries.
+ */
+class SegmentedJournal(val directory: File, val segmentSize: Long, val indexInterval: Int) {
+  import SegmentedJournal._
+
+  if (segmentSize > Int.MaxValue) throw new IllegalArgumentException("Segment size may not exceed " + Int.MaxValue)
+
+  directory.mkdirs()
+
+  /** Get the first sequence of each segment in the journal.
+   *
+   *  @return first sequences in ascending order.
+   */
+  def segments: Array[Long] = {
+    val names = directory.list(new FilenameFilter {
+      override def accept(dir: File, name: String) = name.endsWith(SegmentSuffix)
+    })
+    val firstSequences = names.map(name => name.substring(0, name.length - SegmentSuffix.length).toLong)
+    java.util.Arrays.sort(firstSequences)
+    firstSequences
+  }
+
+  def segmentFile(firstSequence: Long) = new File(directory, "%020d".format(firstSequence) + SegmentSuffix)
+  def indexFile(firstSequence: Long) = new File(directory, "%020d".format(firstSequence) + IndexSuffix)
+
+  /** Map a segment for reading.
+   *
+   *  @param firstSequence of the segment.
+   *  @return the segment mapped read only up to its current length.
+   */
+  def mapSegment(firstSequence: Long): MappedByteBuffer = map(segmentFile(firstSequence))
+
+  /** Map the index of a segment for reading.  Only whole entries are mapped.
+   *
+   *  @param firstSequence of the segment.
+   *  @return the index mapped read only.
+   */
+  def mapIndex(firstSequence: Long): MappedByteBuffer = {
+    val index = map(indexFile(firstSequence))
+    index.limit(index.limit() - index.limit() % IndexEntrySize)
+    index
+  }
+
+  /** Truncate an incomplete or corrupt record left at the end of the last segment by a crash, and any index entries
+   *  pointing at or beyond it, so the journal can be appended to.  A last segment left with no records is deleted.
+   *
+   *  @param maxEntrySize largest number of bytes a marshalled entry may take.
+   *  @return the length of the last segment or -1 if there are no segments.
+   */
+  def recover(maxEntrySize: Int): Long = {
+    val firstSequences = segments
+    var i = firstSequences.length - 1
+    while (i >= 0) {
+      val last = firstSequences(i)
+      val index = mapIndex(last)
+      var validEntries = index.limit() / IndexEntrySize
+      val position = scanLastRecords(last, maxEntrySize)._1
+      while (validEntries > 0 && index.getLong((validEntries - 1) * IndexEntrySize + IndexPositionOffset) >= position) validEntries -= 1
+
+      if (position > 0) {
+        truncate(segmentFile(last), position)
+        truncate(indexFile(last), validEntries * IndexEntrySize)
+        return position
+      }
+
+      segmentFile(last).delete()
+      indexFile(last).delete()
+      i -= 1
+    }
+
+    -1L
+  }
+
+  /** Get the sequence of the last record in a recovered journal, which records appended to it must follow.
+   *
+   *  @param maxEntrySize largest number of bytes a marshalled entry may take.
+   *  @return the last journalled sequence or -1 if there are no segments.
+   */
+  def lastSequence(maxEntrySize: Int): Long = {
+    val firstSequences = segments
+    if (firstSequences.length == 0) -1L else scanLastRecords(firstSequences(firstSequences.length - 1), maxEntrySize)._2
+  }
+
+  /** Scan a segment from its last index entry to the end of its valid records.
+   *
+   *  @return the position after the last valid record and the sequence of that record, or firstSequence - 1 if none.
+   */
+  private def scanLastRecords(firstSequence: Long, maxEntrySize: Int): (Int, Long) = {
+    val index = mapIndex(firstSequence)
+    val indexEntries = index.limit() / IndexEntrySize
+    val segment = mapSegment(firstSequence)
+
+    var position = if (indexEntries > 0) index.getLong((indexEntries - 1) * IndexEntrySize + IndexPositionOffset).asInstanceOf[Int] else 0
+    if (position > segment.limit()) position = 0
+    var lastSequence = firstSequence - 1L
+    val crc = new CRC32
+    val scratch = new Array[Byte](JournalReader.HeaderSize + maxEntrySize)
+    var size = JournalReader.recordSize(segment, position, maxEntrySize, crc, scratch)
+    while (size > 0) {
+      lastSequence = segment.getLong(position + JournalReader.SequenceOffset)
+      position += size
+      size = JournalReader.recordSize(segment, position, maxEntrySize, crc, scratch)
+    }
+
+    (position, lastSequence)
+  }
+
+  private def map(file: File): MappedByteBuffer = {
+    val randomAccessFile = new RandomAccessFile(file, "rw")
+    try {
+      val channel = randomAccessFile.getChannel
+      channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size)
+    } finally {
+      randomAccessFile.close()
+    }
+  }
+
+  private def truncate(file: File, length: Long) {
+    val randomAccessFile = new RandomAccessFile(file, "rw")
+    try {
+      if (randomAccessFile.length > length) randomAccessFile.getChannel.truncate(length)
+    } finally {
+      randomAccessFile.close()
+    }
+  }
+}
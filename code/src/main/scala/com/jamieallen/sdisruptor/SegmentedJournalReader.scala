@@ -0,0 +1,135 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.nio.ByteBuffer
+import java.util.zip.CRC32
+
+/** Replays a {@link SegmentedJournal} through a {@link ProducerBarrier} from a point found by sequence or by time.
+ *
+ *  Seeking binary searches the segments and then the sparse index of one segment, so it takes O(log n) index lookups
+ *  followed by a scan of at most indexInterval records.  Segments are memory-mapped and entries are unmarshalled
+ *  straight from the mapping into the claimed {@link AbstractEntry}s.  Replay stops at the end of the journal or at the
+ *  first incomplete or corrupt record.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param journal to replay.
+ *  @param marshaller to read the entries from the journal.
+ *  @param maxEntrySize largest number of bytes a marshalled entry may take.
+ */
+class SegmentedJournalReader[T <: AbstractEntry](journal: SegmentedJournal, marshaller: EntryMarshaller[T], maxEntrySize: Int) {
+  import JournalReader._
+  import SegmentedJournal._
+
+  private[this] val segments = journal.segments
+  private[this] val crc = new CRC32
+  private[this] val scratch = new Array[Byte](HeaderSize + maxEntrySize)
+  private[this] var segmentIndex = 0
+  private[this] var position = 0
+
+  /** Position the reader at the first record with a journalled sequence greater than or equal to the sequence.
+   *
+   *  @param sequence to start replaying from.
+   */
+  def seekSequence(sequence: Long) {
+    segmentIndex = search(segments.length, i => segments(i) <= sequence)
+    if (segmentIndex < 0) {
+      segmentIndex = 0
+      position = 0
+      return
+    }
+
+    val index = journal.mapIndex(segments(segmentIndex))
+    val entry = search(index.limit() / IndexEntrySize, i => index.getLong(i * IndexEntrySize) <= sequence)
+    position = if (entry < 0) 0 else index.getLong(entry * IndexEntrySize + IndexPositionOffset).asInstanceOf[Int]
+
+    val segment = journal.mapSegment(segments(segmentIndex))
+    var size = recordSize(segment, position, maxEntrySize, crc, scratch)
+    while (size > 0 && segment.getLong(position + SequenceOffset) < sequence) {
+      position += size
+      size = recordSize(segment, position, maxEntrySize, crc, scratch)
+    }
+  }
+
+  /** Position the reader at the last indexed record journalled at or before a time, so replay includes every record
+   *  journalled from that time on and at most indexInterval records before it.
+   *
+   *  @param timeMillis to start replaying from, as given by {@link System#currentTimeMillis()}.
+   */
+  def seekTime(timeMillis: Long) {
+    segmentIndex = search(segments.length, i => firstIndexedTime(segments(i)) <= timeMillis)
+    if (segmentIndex < 0) {
+      segmentIndex = 0
+      position = 0
+      return
+    }
+
+    val index = journal.mapIndex(segments(segmentIndex))
+    val entry = search(index.limit() / IndexEntrySize, i => index.getLong(i * IndexEntrySize + IndexTimeOffset) <= timeMillis)
+    position = if (entry < 0) 0 else index.getLong(entry * IndexEntrySize + IndexPositionOffset).asInstanceOf[Int]
+  }
+
+  /** Republish the journalled entries from the current position through a {@link ProducerBarrier}.
+   *
+   *  @param producerBarrier to claim and commit the entries through.
+   *  @return the sequence of the last entry republished or -1 if there were none.
+   */
+  def replay(producerBarrier: ProducerBarrier[T]): Long = {
+    var lastSequence = -1L
+    var valid = true
+
+    while (valid && segmentIndex < segments.length) {
+      val segment = journal.mapSegment(segments(segmentIndex))
+      var size = recordSize(segment, position, maxEntrySize, crc, scratch)
+      while (size > 0) {
+        segment.limit(position + size - ChecksumSize).position(position + HeaderSize)
+        val entry = producerBarrier.nextEntry
+        marshaller.unmarshal(segment, entry)
+        producerBarrier.commit(entry)
+        segment.clear()
+
+        lastSequence = entry.sequence
+        position += size
+        size = recordSize(segment, position, maxEntrySize, crc, scratch)
+      }
+
+      valid = position == segment.limit()
+      segmentIndex += 1
+      position = 0
+    }
+
+    lastSequence
+  }
+
+  private def firstIndexedTime(firstSequence: Long): Long = {
+    val index = journal.mapIndex(firstSequence)
+    if (index.limit() == 0) Long.MaxValue else index.getLong(IndexTimeOffset)
+  }
+
+  /** Binary search for the last of count ascending items that satisfies a predicate holding for a prefix of them.
+   *
+   *  @return the index of the item or -1 if none satisfy it.
+   */
+  private def search(count: Int, atOrBefore: Int => Boolean): Int = {
+    var low = 0
+    var high = count - 1
+    while (low <= high) {
+      val mid = (low + high) >>> 1
+      if (atOrBefore(mid)) low = mid + 1 else high = mid - 1
+    }
+    high
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.zip.CRC32
+
+/** {@link BatchHandler} appending each {@link AbstractEntry} to a {@link SegmentedJournal}, with the same group commit
+ *  as a {@link JournalingBatchHandler}: records are gathered during a batch and the segment is written and forced once
+ *  in {@link #onEndOfBatch()}.
+ *
+ *  A new segment is started when a record would take the current one past the segment size.  Index entries are
+ *  written after the segment has been forced, so an index never points at records that are not durable.
+ *
+ *  Entries are journalled under sequences continuing from the last record in the journal rather than under their
+ *  ring sequence, so a restarted process publishing to a fresh ring from sequence 0 appends to the journal instead
+ *  of overwriting it.  Entries republished by {@link #replay(ProducerBarrier)} are not journalled again.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param journal to append to.
+ *  @param marshaller to write the entries to the journal.
+ *  @param maxEntrySize largest number of bytes a marshalled entry may take.
+ *  @param bufferSize number of bytes gathered before they are written, the write is forced at the end of the batch.
+ */
+class SegmentedJournalingBatchHandler[T <: AbstractEntry](journal: SegmentedJournal, marshaller: EntryMarshaller[T],
+                                                          maxEntrySize: Int, bufferSize: Int)
+    extends BatchHandler[T] with LifecycleAware {
+  import JournalReader._
+  import SegmentedJournal._
+
+  private[this] val record = ByteBuffer.allocate(HeaderSize + maxEntrySize)
+  private[this] val buffer = ByteBuffer.allocateDirect(math.max(bufferSize, record.capacity + ChecksumSize))
+  private[this] val index = ByteBuffer.allocateDirect(IndexEntrySize * 64)
+  private[this] val crc = new CRC32
+  private[this] var segmentFile: RandomAccessFile = null
+  private[this] var indexFile: RandomAccessFile = null
+  private[this] var segmentPosition = 0L
+  private[this] var recordsInSegment = 0L
+  private[this] var replayedSequence = -1L
+  private[this] var lastSequence = -1L
+  private[this] var sequenceOffset = 0L
+  private[this] var sequenceOffsetKnown = false
+
+  /** Republish the journal through a {@link ProducerBarrier}, which must be done before the {@link BatchConsumer}
+   *  for this handler is started.  The republished entries are not journalled again when they reach this handler.
+   *
+   *  @param producerBarrier to claim and commit the entries through.
+   *  @return the sequence of the last entry republished or -1 if the journal is empty.
+   */
+  def replay(producerBarrier: ProducerBarrier[T]): Long = {
+    replayedSequence = new SegmentedJournalReader[T](journal, marshaller, maxEntrySize).replay(producerBarrier)
+    replayedSequence
+  }
+
+  /** Open the last segment for appending, after truncating anything a crash left incomplete.
+   */
+  override def onStart() {
+    val length = journal.recover(maxEntrySize)
+    lastSequence = journal.lastSequence(maxEntrySize)
+    sequenceOffsetKnown = false
+    if (length >= 0) {
+      val segments = journal.segments
+      open(segments(segments.length - 1), length)
+    }
+  }
+
+  override def onAvailable(entry: T) {
+    if (entry.sequence <= replayedSequence) return
+
+    if (!sequenceOffsetKnown) {
+      sequenceOffset = lastSequence + 1L - entry.sequence
+      sequenceOffsetKnown = true
+    }
+    val sequence = entry.sequence + sequenceOffset
+    val checksum = marshalRecord(entry, sequence, marshaller, record, crc)
+    val size = record.remaining() + ChecksumSize
+
+    if (segmentFile != null && segmentPosition > 0 && segmentPosition + size > journal.segmentSize) {
+      flush()
+      close()
+    }
+    if (segmentFile == null) {
+      if (journal.segmentFile(sequence).exists) throw new IllegalStateException("Segment already journalled: " + sequence)
+      open(sequence, 0L)
+    }
+
+    if (recordsInSegment % journal.indexInterval == 0) {
+      if (!index.hasRemaining) flush()
+      index.putLong(sequence)
+      index.putLong(System.currentTimeMillis)
+      index.putLong(segmentPosition)
+    }
+
+    if (buffer.remaining() < size) write(buffer, segmentFile.getChannel)
+    buffer.put(record)
+    buffer.putInt(checksum)
+    segmentPosition += size
+    recordsInSegment += 1
+    lastSequence = sequence
+  }
+
+  override def onEndOfBatch() { flush() }
+
+  override def onShutdown() {
+    if (segmentFile == null) return
+
+    flush()
+    close()
+  }
+
+  private def open(firstSequence: Long, length: Long) {
+    segmentFile = new RandomAccessFile(journal.segmentFile(firstSequence), "rw")
+    segmentFile.getChannel.position(length)
+    indexFile = new RandomAccessFile(journal.indexFile(firstSequence), "rw")
+    indexFile.getChannel.position(indexFile.length)
+    segmentPosition = length
+    recordsInSegment = 0L
+  }
+
+  private def flush() {
+    if (buffer.position() > 0) {
+      write(buffer, segmentFile.getChannel)
+      segmentFile.getChannel.force(false)
+    }
+    if (index.position() > 0) write(index, indexFile.getChannel)
+  }
+
+  private def close() {
+    segmentFile.close()
+    indexFile.close()
+    segmentFile = null
+    indexFile = null
+  }
+
+  private def write(source: ByteBuffer, channel: FileChannel) {
+    source.flip()
+    while (source.hasRemaining) channel.write(source)
+    source.clear()
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.util.concurrent.TimeUnit
+
+/** Coordination barrier for tracking the cursor for producers and sequence of
+ *  dependent {@link Consumer}s of a ring, independent of what the ring stores.
+ *
+ *  {@link WaitStrategy}s wait on a SequenceBarrier so the same strategies serve {@link RingBuffer} and {@link LongRingBuffer}.
+ */
+trait SequenceBarrier {
+  /** Moving average of the waits on this barrier, kept by the {@link WaitStrategy.AdaptiveStrategy}.
+   */
+  private[sdisruptor] final val averageWait = new WaitStrategy.AverageWait
+
+  /** Wait for the given sequence to be available for consumption.
+   *
+   *  @param sequence to wait for
+   *  @return the sequence up to which is available
+   */
+  def waitFor(sequence: Long): Long
+
+  /** Wait for the given sequence to be available for consumption with a time out.
+   *
+   *  @param sequence to wait for
+   *  @param timeout value
+   *  @param units for the timeout value
+   *  @return the sequence up to which is available
+   */
+  def waitFor(sequence: Long, timeout: Long, units: TimeUnit): Long
+
+  /** Delegate a call to the cursor of the ring
+   *  @return value of the cursor for entries that have been published.
+   */
+  def getCursor: Long
+
+  /** Get the sequence up to which entries are available without waiting, which is the cursor of the ring or the
+   *  minimum sequence of the dependent {@link Consumer}s of the barrier.
+   *
+   *  @return the sequence up to which is available.
+   */
+  def availableSequence: Long
+
+  /** Tell whether the cursor of this barrier also advances as {@link Consumer}s advance, so strategies that block
+   *  must wake those waiting on it on {@link WaitStrategy#signalConsumerAdvanced()}.
+   *
+   *  @return true if the cursor follows consumers as well as the ring, false by default.
+   */
+  def advancesWithConsumers: Boolean = false
+
+  /** The current alert status for the barrier.
+   *
+   *  @return true if in alert otherwise false.
+   */
+  def isAlerted: Boolean
+
+  /** Alert the consumers of a status change and stay in this status until cleared.
+   */
+  def alert()
+
+  /** Clear the current alert status.
+   */
+  def clearAlert()
+
+  /** Signal producers waiting on the ring for capacity, and {@link Consumer}s gated on it, that a {@link Consumer}
+   *  using this barrier has advanced.
+   */
+  def signalProducers()
+}
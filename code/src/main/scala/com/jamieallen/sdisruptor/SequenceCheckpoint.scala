@@ -0,0 +1,94 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteOrder
+import java.nio.channels.FileChannel
+
+object SequenceCheckpoint {
+  /** Marks a file a sequence has been checkpointed to.
+   */
+  val Magic = 0x5344697343686b70L
+
+  private val SequenceOffset = 8
+  private val Size = 16
+}
+
+/** Sequence of a {@link BatchConsumer} checkpointed to a small memory-mapped file so that, after a restart, the
+ *  consumer carries on from it rather than from the start.  Set it with {@link BatchConsumer#checkpoint_(SequenceCheckpoint)}.
+ *
+ *  The sequence is checkpointed at the end of a batch once the given number of batches or time has passed since the
+ *  last checkpoint, and when the consumer halts.  A checkpoint is a store to mapped memory, so no system call is made
+ *  on the consumer thread; it survives the process exiting or crashing but not the machine going down.  Entries after
+ *  the checkpointed sequence are consumed again after a restart, so consumers must tolerate seeing them twice.
+ *
+ *  @param file holding the checkpoint, created if it does not exist.
+ *  @param everyBatches number of batches between checkpoints, or 0 to checkpoint on time alone.
+ *  @param everyMicros microseconds between checkpoints, or 0 to checkpoint on batches alone.
+ */
+class SequenceCheckpoint(file: File, everyBatches: Int, everyMicros: Long) {
+  import SequenceCheckpoint._
+
+  private[this] val buffer = {
+    val randomAccessFile = new RandomAccessFile(file, "rw")
+    try {
+      randomAccessFile.getChannel.map(FileChannel.MapMode.READ_WRITE, 0L, Size).order(ByteOrder.nativeOrder())
+    } finally {
+      randomAccessFile.close()
+    }
+  }
+  private[this] val address = SharedMemory.address(buffer)
+  private[this] val everyNanos = everyMicros * 1000L
+  private[this] var batches = 0
+  private[this] var lastNanos = System.nanoTime
+
+  if (buffer.getLong(0) != Magic) {
+    buffer.putLong(SequenceOffset, -1L)
+    buffer.putLong(0, Magic)
+  }
+
+  /** Get the sequence last checkpointed.
+   *
+   *  @return the sequence or -1 if none has been checkpointed.
+   */
+  def sequence: Long = SharedMemory.getLongVolatile(address + SequenceOffset)
+
+  /** Called by the {@link BatchConsumer} at the end of each batch to checkpoint the sequence when one is due.
+   *
+   *  @param sequence the consumer has consumed up to.
+   */
+  def onEndOfBatch(sequence: Long) {
+    batches += 1
+    if (everyBatches > 0 && batches >= everyBatches) {
+      checkpoint(sequence)
+    } else if (everyNanos > 0) {
+      val now = System.nanoTime
+      if (now - lastNanos >= everyNanos) checkpoint(sequence)
+    }
+  }
+
+  /** Checkpoint a sequence now.
+   *
+   *  @param sequence to be checkpointed.
+   */
+  def checkpoint(sequence: Long) {
+    SharedMemory.putOrderedLong(address + SequenceOffset, sequence)
+    batches = 0
+    if (everyNanos > 0) lastNanos = System.nanoTime
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.nio.Buffer
+import java.nio.ByteBuffer
+
+import sun.misc.Unsafe
+
+/** Ordered and volatile access to longs in a direct or mapped {@link ByteBuffer}, which may be shared with other
+ *  processes.  A {@link ByteBuffer} gives no ordering guarantees of its own.
+ */
+private[sdisruptor] object SharedMemory {
+  private val unsafe = {
+    val field = classOf[Unsafe].getDeclaredField("theUnsafe")
+    field.setAccessible(true)
+    field.get(null).asInstanceOf[Unsafe]
+  }
+  private val addressOffset = unsafe.objectFieldOffset(classOf[Buffer].getDeclaredField("address"))
+
+  /** Get the native address of the memory behind a direct {@link ByteBuffer}.
+   *
+   *  @param buffer that is direct or mapped.
+   *  @return address of the first byte of the buffer.
+   */
+  def address(buffer: ByteBuffer): Long = unsafe.getLong(buffer, addressOffset)
+
+  def getLongVolatile(address: Long): Long = unsafe.getLongVolatile(null, address)
+
+  /** Store a long so that it becomes visible after all preceding stores, without waiting for it to become visible.
+   */
+  def putOrderedLong(address: Long, value: Long) { unsafe.putOrderedLong(null, address, value) }
+}
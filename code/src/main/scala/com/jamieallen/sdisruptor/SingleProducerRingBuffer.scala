@@ -0,0 +1,51 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** {@link RingBuffer} for a single producer thread.  Claiming is a plain increment and committing
+ *  simply moves the cursor as no other producer can be ahead of it.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param entryFactory to create {@link AbstractEntry}s for filling the RingBuffer
+ *  @param size of the RingBuffer that will be rounded up to the next power of 2
+ *  @param waitStrategy employed by consumersToTrack waiting on {@link AbstractEntry}s becoming available.
+ *  @param producerWaitStrategy employed by producers waiting on consumersToTrack when the RingBuffer is full.
+ */
+final class SingleProducerRingBuffer[T <: AbstractEntry : ClassManifest](entryFactory: EntryFactory[T],
+                                                                         size: Int,
+                                                                         waitStrategy: WaitStrategy,
+                                                                         producerWaitStrategy: ProducerWaitStrategy)
+    extends RingBuffer[T](entryFactory, size, waitStrategy, producerWaitStrategy) {
+  private[this] val claimStrategy = new ClaimStrategy.SingleThreadedStrategy
+
+  override protected def claim(delta: Int) = claimStrategy.incrementAndGet(delta)
+
+  override protected def tryClaim(delta: Int): Long = {
+    val sequence = claimStrategy.sequence + delta
+    if (!hasCapacity(sequence)) return -1L
+
+    claimStrategy.sequence_(sequence)
+    sequence
+  }
+
+  override protected def claimedSequence = claimStrategy.sequence
+  override protected def forceClaimedSequence(sequence: Long) { claimStrategy.sequence_(sequence) }
+
+  override protected def publish(sequence: Long, batchSize: Long) {
+    cursor_(sequence)
+    waitStrategy.signalAll()
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.io.DataInput
+import java.io.DataOutput
+import java.io.IOException
+
+/** Implement this interface on a {@link BatchHandler} to have its state snapshotted by the {@link BatchConsumer} so
+ *  a restart can restore the latest snapshot and only replay the entries after it.
+ */
+trait SnapshotAware {
+  /** Called by the {@link BatchConsumer} after {@link BatchHandler#onEndOfBatch()} when a snapshot has been requested,
+   *  so the state includes every entry up to the sequence the snapshot is taken at and no more.
+   *
+   *  The {@link Snapshot} is written on another thread while the handler carries on, so it must capture the state
+   *  as it is now, by copying it or by sharing structures that are not modified in place.
+   *
+   *  @return the snapshot of the state.
+   */
+  def snapshot(): Snapshot
+
+  /** Called by {@link SnapshotStore#restore(SnapshotAware)} before the {@link BatchConsumer} is started to replace
+   *  the state with that written by a {@link Snapshot}.
+   *
+   *  @param input to read the state from.
+   */
+  @throws(classOf[IOException])
+  def restore(input: DataInput)
+}
+
+/** State of a {@link SnapshotAware} handler captured at a sequence.
+ */
+trait Snapshot {
+  /** Write the state, called on the thread writing snapshots.
+   *
+   *  @param output to write the state to.
+   */
+  @throws(classOf[IOException])
+  def writeTo(output: DataOutput)
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.FilenameFilter
+import java.util.concurrent.Executor
+
+object SnapshotStore {
+  val Suffix = ".snapshot"
+}
+
+/** Directory of snapshots of the state of a {@link SnapshotAware} handler, each named after the sequence it was taken at.
+ *
+ *  Snapshots are written by the executor, away from the {@link BatchConsumer} thread, to a temporary file that is
+ *  forced and then renamed, so a snapshot file is either complete or absent.
+ *
+ *  @param directory holding the snapshots, created if it does not exist.
+ *  @param executor to write the snapshots on.
+ */
+class SnapshotStore(val directory: File, executor: Executor) {
+  import SnapshotStore._
+
+  directory.mkdirs()
+
+  /** Write a snapshot taken at a sequence.  Returns without waiting for it to be written.
+   *
+   *  @param sequence the snapshot was taken at.
+   *  @param snapshot to be written.
+   */
+  def write(sequence: Long, snapshot: Snapshot) {
+    executor.execute(new Runnable {
+      override def run() {
+        val temporary = new File(directory, name(sequence) + ".tmp")
+        val stream = new FileOutputStream(temporary)
+        try {
+          val output = new DataOutputStream(new BufferedOutputStream(stream))
+          snapshot.writeTo(output)
+          output.flush()
+          stream.getFD.sync()
+        } finally {
+          stream.close()
+        }
+        temporary.renameTo(new File(directory, name(sequence)))
+      }
+    })
+  }
+
+  /** Get the sequence of the latest snapshot written.
+   *
+   *  @return the sequence or -1 if there are no snapshots.
+   */
+  def latestSequence: Long = {
+    val names = directory.list(new FilenameFilter {
+      override def accept(dir: File, name: String) = name.endsWith(Suffix)
+    })
+    var latest = -1L
+    for (name <- names) latest = math.max(latest, name.substring(0, name.length - Suffix.length).toLong)
+    latest
+  }
+
+  /** Restore the latest snapshot into a handler, after which the entries from the returned sequence + 1 on are to be
+   *  replayed, for example with {@link SegmentedJournalReader#seekSequence(Long)}.
+   *
+   *  @param handler to restore the state of.
+   *  @return the sequence the snapshot was taken at or -1 if there are no snapshots.
+   */
+  def restore(handler: SnapshotAware): Long = {
+    val sequence = latestSequence
+    if (sequence < 0) return -1L
+
+    val input = new DataInputStream(new BufferedInputStream(new FileInputStream(new File(directory, name(sequence)))))
+    try {
+      handler.restore(input)
+    } finally {
+      input.close()
+    }
+    sequence
+  }
+
+  private def name(sequence: Long) = "%020d".format(sequence) + Suffix
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** {@link Consumer} that observes a {@link RingBuffer} for monitoring or sampling without ever slowing its producers.
+ *
+ *  A tap must not be tracked by the ring or by a {@link ConsumerBarrier}.  It waits on its own barrier behind the
+ *  cursor and, rather than holding the producers back, detects that it has been lapped from the sequence the producers
+ *  set on each {@link AbstractEntry} as they claim it.  The tap then skips to the oldest entry that may still be
+ *  intact and reports the number of entries it missed to {@link TapHandler#onLapped(Long)}.
+ *
+ *  Lapping is detected before an entry is delivered, from the sequence of the last claim whose stamp is visible.
+ *  A producer that has just claimed an entry may still be writing it while the tap reads it, so a {@link TapHandler}
+ *  must tolerate entries that are torn or newer than their sequence, which makes taps suited to monitoring and
+ *  sampling rather than to business logic.
+ *
+ *  If the {@link TapHandler} also implements {@link LifecycleAware} it will be notified just after the thread
+ *  is started and just before the thread is shutdown.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param ringBuffer to observe, the tap joins at its cursor.
+ *  @param handler to which the observed entries are delegated.
+ */
+class TapConsumer[T <: AbstractEntry](ringBuffer: RingBuffer[T], handler: TapHandler[T]) extends Consumer {
+  val p1, p2, p3, p4, p5, p6, p7: Long = -1L  // cache line padding
+  @volatile private var _sequence: Long = ringBuffer.cursor
+  val p8, p9, p10, p11, p12, p13, p14: Long = -1L // cache line padding
+
+  private val consumerBarrier = ringBuffer.createConsumerBarrier(new Array[Consumer](0))
+  private var _exceptionHandler: ExceptionHandler = new FatalExceptionHandler(null)
+  @volatile private var running = true
+  @volatile private var _missedEntries = 0L
+
+  override def sequence: Long = _sequence
+  override def sequence_(newSequence: Long) { _sequence = newSequence }
+
+  override def halt() {
+    running = false
+    consumerBarrier.alert
+  }
+
+  /** Get the total number of entries the tap has missed from being lapped.
+   *
+   *  @return the number of missed entries.
+   */
+  def missedEntries: Long = _missedEntries
+
+  /** Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link TapHandler}
+   *
+   *  @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  def exceptionHandler_(newExceptionHandler: ExceptionHandler) {
+    if (null == newExceptionHandler) throw new NullPointerException()
+
+    _exceptionHandler = newExceptionHandler
+  }
+
+  /** It is ok to have another thread rerun this method after a halt().
+   */
+  override def run {
+    running = true
+    consumerBarrier.clearAlert()
+    if (classOf[LifecycleAware].isAssignableFrom(handler.getClass())) handler.asInstanceOf[LifecycleAware].onStart()
+
+    var entry = null.asInstanceOf[T]
+    var nextSequence = _sequence + 1L
+    var handledSequence = _sequence
+    while (running) {
+      try {
+        val availableSequence = consumerBarrier.waitFor(nextSequence)
+        while (nextSequence <= availableSequence) {
+          entry = consumerBarrier.getEntry(nextSequence)
+          val claimedSequence = entry.sequence
+          if (claimedSequence > nextSequence) {
+            val cursorSequence = ringBuffer.cursor
+            val oldestSequence = (if (claimedSequence > cursorSequence) claimedSequence else cursorSequence) - ringBuffer.capacity + 1L
+            lapped(oldestSequence - nextSequence)
+            nextSequence = oldestSequence
+          }
+          else {
+            handledSequence = nextSequence
+            handler.onAvailable(entry)
+            nextSequence += 1L
+          }
+        }
+
+        handler.onEndOfBatch()
+        _sequence = nextSequence - 1L
+      }
+      catch {
+        case ae: AlertException => // Wake up from blocking wait and check if we should continue to run
+        case ex: Exception => {
+          _exceptionHandler.handle(ex, entry.asInstanceOf[AbstractEntry])
+          _sequence = handledSequence
+          nextSequence = handledSequence + 1L
+        }
+      }
+    }
+
+    if (classOf[LifecycleAware].isAssignableFrom(handler.getClass())) handler.asInstanceOf[LifecycleAware].onShutdown()
+  }
+
+  private def lapped(missed: Long) {
+    _missedEntries += missed
+    handler.onLapped(missed)
+  }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** Callback interface for a {@link TapConsumer} observing a {@link RingBuffer} without gating its producers.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+trait TapHandler[T <: AbstractEntry] extends BatchHandler[T] {
+  /** Called when the producers have lapped the tap, overwriting entries before it could read them.
+   *
+   *  @param missedEntries number of entries overwritten before they were delivered and so skipped.
+   */
+  def onLapped(missedEntries: Long)
+}
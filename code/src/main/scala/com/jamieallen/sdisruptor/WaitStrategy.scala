@@ -16,6 +16,11 @@
 package com.jamieallen.sdisruptor
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -24,38 +29,55 @@ import scala.util.control.Breaks._
 
 object WaitStrategy {
   val Blocking = "blocking"
+  val LiteBlocking = "liteBlocking"
+  val PhasedBackoff = "phasedBackoff"
+  val Adaptive = "adaptive"
+  val TargetedUnpark = "targetedUnpark"
   val BusySpin = "busySpin"
   val Yielding = "yielding"
   
 	def newInstance(option: String): WaitStrategy = {
 	  option match {
 	    case Blocking => new BlockingStrategy
+	    case LiteBlocking => new LiteBlockingStrategy
+	    case PhasedBackoff => new PhasedBackoffStrategy(10L, 100L, TimeUnit.MICROSECONDS)
+	    case Adaptive => new AdaptiveStrategy(10L, 100L, TimeUnit.MICROSECONDS)
+	    case TargetedUnpark => new TargetedUnparkStrategy
 	    case BusySpin => new BusySpinStrategy
 	    case Yielding => new YieldingStrategy
 	  }
 	}
 
   /** Blocking strategy that uses a lock and condition variable for {@link Consumer}s waiting on a barrier.
+   *
+   *  Consumers advancing only take the lock to signal while something waits on a barrier that
+   *  {@link SequenceBarrier#advancesWithConsumers}, otherwise they pay for a volatile read.
    *
    *  This strategy should be used when performance and low-latency are not as important as CPU resource.
    */
   class BlockingStrategy extends WaitStrategy {
     private val lock = new ReentrantLock()
     private val consumerNotifyCondition = lock.newCondition()
+    private val consumerAdvanceWaiters = new AtomicInteger()
 
-    override def waitFor[A <: AbstractEntry](consumers: Array[Consumer], ringBuffer: RingBuffer[A], barrier: ConsumerBarrier[A], sequence: Long) = {
-      var availableSequence: Long = ringBuffer.cursor
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long) = {
+      var availableSequence: Long = barrier.getCursor
       if (availableSequence < sequence) {
+        val countWaiter = barrier.advancesWithConsumers
+        if (countWaiter) consumerAdvanceWaiters.incrementAndGet()
         lock.lock()
         try {
-          availableSequence = ringBuffer.cursor
+          availableSequence = barrier.getCursor
           while (availableSequence < sequence) {
             if (barrier.isAlerted) throw AlertException.alertException;
             consumerNotifyCondition.await()
-            availableSequence = ringBuffer.cursor
+            availableSequence = barrier.getCursor
           }
         }
-        finally { lock.unlock() }
+        finally {
+          lock.unlock()
+          if (countWaiter) consumerAdvanceWaiters.decrementAndGet()
+        }
       }
 
       if (0 != consumers.length) {
@@ -69,21 +91,26 @@ object WaitStrategy {
       availableSequence
     }
 
-    override def waitFor[A <: AbstractEntry](consumers: Array[Consumer], ringBuffer: RingBuffer[A], barrier: ConsumerBarrier[A], sequence: Long, timeout: Long, units: TimeUnit) = {
-      var availableSequence: Long = ringBuffer.cursor
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeout: Long, units: TimeUnit) = {
+      var availableSequence: Long = barrier.getCursor
       if (availableSequence < sequence) {
+        val countWaiter = barrier.advancesWithConsumers
+        if (countWaiter) consumerAdvanceWaiters.incrementAndGet()
         lock.lock()
         try {
-          availableSequence = ringBuffer.cursor
+          availableSequence = barrier.getCursor
           breakable {
 	          while (availableSequence < sequence) {
 	            if (barrier.isAlerted) throw AlertException.alertException
 	            if (!consumerNotifyCondition.await(timeout, units)) break
-	            availableSequence = ringBuffer.cursor
+	            availableSequence = barrier.getCursor
 	          }
           }
         }
-        finally { lock.unlock() }
+        finally {
+          lock.unlock()
+          if (countWaiter) consumerAdvanceWaiters.decrementAndGet()
+        }
       }
 
       if (0 != consumers.length) {
@@ -102,19 +129,398 @@ object WaitStrategy {
       try { consumerNotifyCondition.signalAll() }
       finally { lock.unlock() }
     }
+
+    override def signalConsumerAdvanced() {
+      if (0 != consumerAdvanceWaiters.get) {
+        lock.lock()
+        try { consumerNotifyCondition.signalAll() }
+        finally { lock.unlock() }
+      }
+    }
+  }
+
+  /** Variant of the {@link BlockingStrategy} where producers only take the lock to signal when a {@link Consumer}
+   *  has flagged that it is about to wait, so a producer committing while every consumer is busy pays only for
+   *  reading and clearing the flag.  Consumers advancing only signal while something waits on a barrier that
+   *  {@link SequenceBarrier#advancesWithConsumers}.
+   *
+   *  This strategy should be used over the {@link BlockingStrategy} when CPU resource matters and the consumers
+   *  are mostly busy under load.
+   */
+  class LiteBlockingStrategy extends WaitStrategy {
+    private val lock = new ReentrantLock()
+    private val consumerNotifyCondition = lock.newCondition()
+    private val signalNeeded = new AtomicBoolean(false)
+    private val consumerAdvanceWaiters = new AtomicInteger()
+
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long) = {
+      var availableSequence: Long = barrier.getCursor
+      if (availableSequence < sequence) {
+        val countWaiter = barrier.advancesWithConsumers
+        if (countWaiter) consumerAdvanceWaiters.incrementAndGet()
+        lock.lock()
+        try {
+          signalNeeded.set(true)
+          availableSequence = barrier.getCursor
+          while (availableSequence < sequence) {
+            if (barrier.isAlerted) throw AlertException.alertException
+            consumerNotifyCondition.await()
+            signalNeeded.set(true)
+            availableSequence = barrier.getCursor
+          }
+        }
+        finally {
+          lock.unlock()
+          if (countWaiter) consumerAdvanceWaiters.decrementAndGet()
+        }
+      }
+
+      if (0 != consumers.length) {
+        availableSequence = Util.getMinimumSequence(consumers)
+        while (availableSequence < sequence) {
+          if (barrier.isAlerted) throw AlertException.alertException
+          availableSequence = Util.getMinimumSequence(consumers)
+        }
+      }
+
+      availableSequence
+    }
+
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeout: Long, units: TimeUnit) = {
+      var availableSequence: Long = barrier.getCursor
+      if (availableSequence < sequence) {
+        val countWaiter = barrier.advancesWithConsumers
+        if (countWaiter) consumerAdvanceWaiters.incrementAndGet()
+        lock.lock()
+        try {
+          signalNeeded.set(true)
+          availableSequence = barrier.getCursor
+          breakable {
+	          while (availableSequence < sequence) {
+	            if (barrier.isAlerted) throw AlertException.alertException
+	            if (!consumerNotifyCondition.await(timeout, units)) break
+	            signalNeeded.set(true)
+	            availableSequence = barrier.getCursor
+	          }
+          }
+        }
+        finally {
+          lock.unlock()
+          if (countWaiter) consumerAdvanceWaiters.decrementAndGet()
+        }
+      }
+
+      if (0 != consumers.length) {
+        availableSequence = Util.getMinimumSequence(consumers)
+        while (availableSequence < sequence) {
+          if (barrier.isAlerted) throw AlertException.alertException
+          availableSequence = Util.getMinimumSequence(consumers)
+        }
+      }
+
+      availableSequence
+    }
+
+  	override def signalAll() {
+      if (signalNeeded.getAndSet(false)) {
+        lock.lock()
+        try { consumerNotifyCondition.signalAll() }
+        finally { lock.unlock() }
+      }
+    }
+
+    override def signalConsumerAdvanced() {
+      if (0 != consumerAdvanceWaiters.get) {
+        lock.lock()
+        try { consumerNotifyCondition.signalAll() }
+        finally { lock.unlock() }
+      }
+    }
+  }
+
+  /** Phased backoff strategy that busy spins for the spin timeout, then yields until the yield timeout has also
+   *  passed, then waits as a {@link LiteBlockingStrategy} until signalled.  The phases are timed with
+   *  System.nanoTime(), read only every SpinTries checks of the sequence to keep it off the spinning path.
+   *
+   *  This strategy gives close to busy spin latency during bursts and close to no CPU use in quiet periods, the
+   *  {@link WaitStrategy#PhasedBackoff} option spins for 10 microseconds and yields for 100 more.
+   *
+   *  @param spinTimeout to busy spin for before yielding.
+   *  @param yieldTimeout to yield for after spinning, before blocking.
+   *  @param units of the timeout values.
+   */
+  class PhasedBackoffStrategy(spinTimeout: Long, yieldTimeout: Long, units: TimeUnit) extends WaitStrategy {
+    private val SpinTries = 100
+    private val spinTimeoutNanos = units.toNanos(spinTimeout)
+    private val yieldTimeoutNanos = spinTimeoutNanos + units.toNanos(yieldTimeout)
+    private val fallbackStrategy = new LiteBlockingStrategy
+
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long): Long = {
+      var startTime = 0L
+      var counter = SpinTries
+      var availableSequence = getAvailableSequence(consumers, barrier)
+      while (availableSequence < sequence) {
+        if (barrier.isAlerted) throw AlertException.alertException
+
+        counter -= 1
+        if (0 == counter) {
+          if (0L == startTime) startTime = System.nanoTime()
+          else {
+            val timeDelta = System.nanoTime() - startTime
+            if (timeDelta > yieldTimeoutNanos) return fallbackStrategy.waitFor(consumers, barrier, sequence)
+            if (timeDelta > spinTimeoutNanos) Thread.`yield`()
+          }
+          counter = SpinTries
+        }
+        availableSequence = getAvailableSequence(consumers, barrier)
+      }
+
+      availableSequence
+    }
+
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeout: Long, units: TimeUnit): Long = {
+      val timeoutNanos = units.toNanos(timeout)
+      val startTime = System.nanoTime()
+      var counter = SpinTries
+      var availableSequence = getAvailableSequence(consumers, barrier)
+      breakable {
+        while (availableSequence < sequence) {
+          if (barrier.isAlerted) throw AlertException.alertException
+
+          counter -= 1
+          if (0 == counter) {
+            val timeDelta = System.nanoTime() - startTime
+            if (timeDelta > timeoutNanos) break
+            if (timeDelta > yieldTimeoutNanos)
+              return fallbackStrategy.waitFor(consumers, barrier, sequence, timeoutNanos - timeDelta, TimeUnit.NANOSECONDS)
+            if (timeDelta > spinTimeoutNanos) Thread.`yield`()
+            counter = SpinTries
+          }
+          availableSequence = getAvailableSequence(consumers, barrier)
+        }
+      }
+
+      availableSequence
+    }
+
+    override def signalAll() { fallbackStrategy.signalAll() }
+
+    override def signalConsumerAdvanced() { fallbackStrategy.signalConsumerAdvanced() }
+
+    private def getAvailableSequence(consumers: Array[Consumer], barrier: SequenceBarrier) =
+      if (0 == consumers.length) barrier.getCursor else Util.getMinimumSequence(consumers)
+  }
+
+  /** Adaptive strategy that keeps a moving average of how long {@link Consumer}s have waited for entries on each
+   *  barrier and picks how to wait from it.  While entries have been arriving within the spin timeout it busy
+   *  spins for up to twice the average wait, then yields until the yield timeout has also passed, then waits as a
+   *  {@link LiteBlockingStrategy}.  Once the average wait exceeds the yield timeout it blocks straight away.
+   *
+   *  Waits are measured with System.nanoTime() and capped at twice the yield timeout so the average comes back
+   *  down within a few waits when traffic picks up after a quiet period.  The number of waits ending in each mode is
+   *  counted for monitoring.  The {@link WaitStrategy#Adaptive} option spins for up to 10 microseconds and yields
+   *  for 100 more.
+   *
+   *  The average is kept in the barrier itself, so finding it takes no lock and it goes with the barrier.
+   *
+   *  @param spinTimeout the most to busy spin for before yielding.
+   *  @param yieldTimeout to yield for after spinning, before blocking.
+   *  @param units of the timeout values.
+   */
+  class AdaptiveStrategy(spinTimeout: Long, yieldTimeout: Long, units: TimeUnit) extends WaitStrategy {
+    private val SpinTries = 100
+    private val spinTimeoutNanos = units.toNanos(spinTimeout)
+    private val yieldTimeoutNanos = spinTimeoutNanos + units.toNanos(yieldTimeout)
+    private val fallbackStrategy = new LiteBlockingStrategy
+    private val spins = new AtomicLong()
+    private val yields = new AtomicLong()
+    private val blocks = new AtomicLong()
+
+    /** Get the number of waits that ended while busy spinning.
+     *
+     *  @return the number of spinning waits.
+     */
+    def spinCount: Long = spins.get
+
+    /** Get the number of waits that ended while yielding.
+     *
+     *  @return the number of yielding waits.
+     */
+    def yieldCount: Long = yields.get
+
+    /** Get the number of waits that fell back to blocking.
+     *
+     *  @return the number of blocking waits.
+     */
+    def blockCount: Long = blocks.get
+
+    /** Get the moving average of how long consumers have waited on a barrier.
+     *
+     *  @param barrier waited on.
+     *  @return the average wait in nanoseconds, 0 if no consumer has waited on the barrier.
+     */
+    def averageWait(barrier: SequenceBarrier): Long = barrier.averageWait.nanos
+
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long) =
+      waitFor(consumers, barrier, sequence, Long.MaxValue)
+
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeout: Long, units: TimeUnit) =
+      waitFor(consumers, barrier, sequence, units.toNanos(timeout))
+
+    override def signalAll() { fallbackStrategy.signalAll() }
+
+    override def signalConsumerAdvanced() { fallbackStrategy.signalConsumerAdvanced() }
+
+    private def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeoutNanos: Long): Long = {
+      var availableSequence = getAvailableSequence(consumers, barrier)
+      if (availableSequence < sequence) {
+        val averageWait = barrier.averageWait
+        val startTime = System.nanoTime()
+        var timeDelta = 0L
+        var yielded = false
+        if (averageWait.nanos <= yieldTimeoutNanos) {
+          val spinBudgetNanos = Math.min(2L * averageWait.nanos, spinTimeoutNanos)
+          var counter = SpinTries
+          while (availableSequence < sequence && timeDelta <= yieldTimeoutNanos && timeDelta <= timeoutNanos) {
+            if (barrier.isAlerted) throw AlertException.alertException
+
+            counter -= 1
+            if (0 == counter) {
+              timeDelta = System.nanoTime() - startTime
+              counter = SpinTries
+            }
+            if (timeDelta > spinBudgetNanos) {
+              yielded = true
+              Thread.`yield`()
+            }
+            availableSequence = getAvailableSequence(consumers, barrier)
+          }
+        }
+
+        if (availableSequence >= sequence) (if (yielded) yields else spins).incrementAndGet()
+        else if (timeDelta <= timeoutNanos) {
+          blocks.incrementAndGet()
+          availableSequence =
+            if (timeoutNanos == Long.MaxValue) fallbackStrategy.waitFor(consumers, barrier, sequence)
+            else fallbackStrategy.waitFor(consumers, barrier, sequence, timeoutNanos - timeDelta, TimeUnit.NANOSECONDS)
+        }
+
+        averageWait.update(Math.min(System.nanoTime() - startTime, 2L * yieldTimeoutNanos))
+      }
+
+      availableSequence
+    }
+
+    private def getAvailableSequence(consumers: Array[Consumer], barrier: SequenceBarrier) =
+      if (0 == consumers.length) barrier.getCursor else Util.getMinimumSequence(consumers)
+  }
+
+  /** Exponentially weighted moving average of waits on a barrier.  Updates are not atomic, consumers sharing a
+   *  barrier may lose each other's updates which only skews the average.
+   */
+  private[sdisruptor] final class AverageWait {
+    @volatile var nanos = 0L
+
+    def update(waitNanos: Long) { nanos += (waitNanos - nanos) >> 3 }
+  }
+
+  /** Blocking strategy where each waiting {@link Consumer} registers its thread and the sequence it needs, and is
+   *  unparked only once that sequence is available or its barrier is alerted.  Producers check the waiters on each
+   *  commit and {@link Consumer}s check them each time they advance, so a consumer gated on other consumers parks
+   *  until they have advanced far enough rather than being woken by every commit or spinning on them.
+   *
+   *  Waiters are held in a copy-on-write array, so a commit while no consumer is waiting costs a volatile read.
+   *
+   *  This strategy should be used over the {@link BlockingStrategy} when CPU resource matters and there are
+   *  consumers gated on other consumers.
+   */
+  class TargetedUnparkStrategy extends WaitStrategy {
+    private val waiters = new AtomicReference[Array[Waiter]](new Array[Waiter](0))
+
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long) =
+      waitFor(consumers, barrier, sequence, Long.MaxValue)
+
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeout: Long, units: TimeUnit) =
+      waitFor(consumers, barrier, sequence, units.toNanos(timeout))
+
+    override def signalAll() { unparkAvailable() }
+
+    override def signalConsumerAdvanced() { unparkAvailable() }
+
+    private def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeoutNanos: Long): Long = {
+      var availableSequence = if (0 == consumers.length) barrier.getCursor else Util.getMinimumSequence(consumers)
+      if (availableSequence < sequence) {
+        val deadline = System.nanoTime() + timeoutNanos
+        val waiter = new Waiter(Thread.currentThread(), consumers, barrier, sequence)
+        register(waiter)
+        try {
+          availableSequence = waiter.availableSequence
+          breakable {
+            while (availableSequence < sequence) {
+              if (barrier.isAlerted) throw AlertException.alertException
+
+              if (timeoutNanos == Long.MaxValue) LockSupport.park(this)
+              else {
+                val remainingNanos = deadline - System.nanoTime()
+                if (remainingNanos <= 0L) break
+                LockSupport.parkNanos(this, remainingNanos)
+              }
+              availableSequence = waiter.availableSequence
+            }
+          }
+        }
+        finally { deregister(waiter) }
+      }
+
+      availableSequence
+    }
+
+    private def unparkAvailable() {
+      val currentWaiters = waiters.get
+      var i = 0
+      while (i < currentWaiters.length) {
+        val waiter = currentWaiters(i)
+        if (waiter.barrier.isAlerted || waiter.availableSequence >= waiter.sequence) LockSupport.unpark(waiter.thread)
+        i += 1
+      }
+    }
+
+    private def register(waiter: Waiter) {
+      var currentWaiters: Array[Waiter] = null
+      var updatedWaiters: Array[Waiter] = null
+      do {
+        currentWaiters = waiters.get
+        updatedWaiters = currentWaiters :+ waiter
+      } while (!waiters.compareAndSet(currentWaiters, updatedWaiters))
+    }
+
+    private def deregister(waiter: Waiter) {
+      var currentWaiters: Array[Waiter] = null
+      var updatedWaiters: Array[Waiter] = null
+      do {
+        currentWaiters = waiters.get
+        updatedWaiters = currentWaiters.filter(_ ne waiter)
+      } while (!waiters.compareAndSet(currentWaiters, updatedWaiters))
+    }
+  }
+
+  /** Thread waiting in a {@link TargetedUnparkStrategy} for a sequence to become available on a barrier.
+   */
+  private final class Waiter(val thread: Thread, consumers: Array[Consumer], val barrier: SequenceBarrier, val sequence: Long) {
+    def availableSequence: Long = if (0 == consumers.length) barrier.getCursor else Util.getMinimumSequence(consumers)
   }
 
   /** Optimised strategy can be used when there is a single producer thread claiming {@link AbstractEntry}s.
    */
   class BusySpinStrategy extends WaitStrategy {
-  	override def waitFor[A <: AbstractEntry](consumers: Array[Consumer], ringBuffer: RingBuffer[A], barrier: ConsumerBarrier[A], sequence: Long) = {
+  	override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long) = {
       var availableSequence: Long = -1L
 
       if (0 == consumers.length) {
-        availableSequence = ringBuffer.cursor
+        availableSequence = barrier.getCursor
         while (availableSequence < sequence) {
           if (barrier.isAlerted) throw AlertException.alertException
-          availableSequence = ringBuffer.cursor
+          availableSequence = barrier.getCursor
         }
       }
       else {
@@ -128,18 +534,18 @@ object WaitStrategy {
       availableSequence
     }
 
-    override def waitFor[A <: AbstractEntry](consumers: Array[Consumer], ringBuffer: RingBuffer[A], barrier: ConsumerBarrier[A], sequence: Long, timeout: Long, units: TimeUnit) = {
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeout: Long, units: TimeUnit) = {
       val timeoutMs = units.convert(timeout, TimeUnit.MILLISECONDS)
       val currentTime = System.currentTimeMillis()
       var availableSequence: Long = -1L
 
       if (0 == consumers.length) {
-        availableSequence = ringBuffer.cursor
+        availableSequence = barrier.getCursor
         breakable {
 	        while (availableSequence < sequence) {
 	          if (barrier.isAlerted) throw AlertException.alertException
 	          if (timeoutMs < (System.currentTimeMillis() - currentTime)) break
-	          availableSequence = ringBuffer.cursor
+	          availableSequence = barrier.getCursor
 	        }
         }
       }
@@ -165,16 +571,16 @@ object WaitStrategy {
    *  This strategy is a good compromise between performance and CPU resource.
    */
   class YieldingStrategy extends WaitStrategy {
-  	override def waitFor[A <: AbstractEntry](consumers: Array[Consumer], ringBuffer: RingBuffer[A], barrier: ConsumerBarrier[A], sequence: Long) = {
+  	override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long) = {
       var availableSequence: Long = -1L
 
       if (0 == consumers.length) {
-        availableSequence = ringBuffer.cursor
+        availableSequence = barrier.getCursor
         while (availableSequence < sequence) {
           if (barrier.isAlerted) throw AlertException.alertException
 
           Thread.`yield`()
-          availableSequence = ringBuffer.cursor
+          availableSequence = barrier.getCursor
         }
       }
       else {
@@ -190,20 +596,20 @@ object WaitStrategy {
       availableSequence
     }
 
-    override def waitFor[A <: AbstractEntry](consumers: Array[Consumer], ringBuffer: RingBuffer[A], barrier: ConsumerBarrier[A], sequence: Long, timeout: Long, units: TimeUnit) = {
+    override def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeout: Long, units: TimeUnit) = {
       val timeoutMs = units.convert(timeout, TimeUnit.MILLISECONDS)
       val currentTime = System.currentTimeMillis()
       var availableSequence: Long = -1L
 
       if (0 == consumers.length) {
-        availableSequence = ringBuffer.cursor
+        availableSequence = barrier.getCursor
         breakable {
 	        while (availableSequence < sequence) {
 	          if (barrier.isAlerted) throw AlertException.alertException
 	
 	          Thread.`yield`()
 	          if (timeoutMs < (System.currentTimeMillis() - currentTime)) break
-	          availableSequence = ringBuffer.cursor
+	          availableSequence = barrier.getCursor
 	        }
         }
       }
@@ -233,26 +639,31 @@ trait WaitStrategy {
   /** Wait for the given sequence to be available for consumption in a {@link RingBuffer}
    *
    *  @param consumers further back the chain that must advance first
-   *  @param ringBuffer on which to wait.
-   *  @param barrier the consumer is waiting on.
+   *  @param barrier the consumer is waiting on, which gives the cursor of the ring.
    *  @param sequence to be waited on.
    *  @return the sequence that is available which may be greater than the requested sequence.
    */
-  def waitFor[A <: AbstractEntry](consumers: Array[Consumer], ringBuffer: RingBuffer[A], barrier: ConsumerBarrier[A], sequence: Long): Long
+  def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long): Long
 
   /** Wait for the given sequence to be available for consumption in a {@link RingBuffer} with a timeout specified.
    *
    *  @param consumers further back the chain that must advance first
-   *  @param ringBuffer on which to wait.
-   *  @param barrier the consumer is waiting on.
+   *  @param barrier the consumer is waiting on, which gives the cursor of the ring.
    *  @param sequence to be waited on.
    *  @param timeout value to abort after.
    *  @param units of the timeout value.
    *  @return the sequence that is available which may be greater than the requested sequence.
    */
-  def waitFor[A <: AbstractEntry](consumers: Array[Consumer], ringBuffer: RingBuffer[A], barrier: ConsumerBarrier[A], sequence: Long, timeout: Long, units: TimeUnit): Long
+  def waitFor(consumers: Array[Consumer], barrier: SequenceBarrier, sequence: Long, timeout: Long, units: TimeUnit): Long
 
   /** Signal those waiting that the {@link RingBuffer} cursor has advanced.
    */
   def signalAll()
+
+  /** Signal those waiting that a {@link Consumer} they may be gated on has advanced, such as a
+   *  {@link MultiRingBatchConsumer} waiting on barriers gated on other consumers.  Strategies that only spin have
+   *  nothing to do, those that block only signal while a wait is on a barrier that
+   *  {@link SequenceBarrier#advancesWithConsumers}, as this is called each time any consumer advances.
+   */
+  def signalConsumerAdvanced() { }
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+/** Callback interface to be implemented for processing {@link AbstractEntry}s shared out between the workers of a
+ *  {@link WorkerPool}, where each entry is handled by only one of them.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+trait WorkHandler[T <: AbstractEntry] {
+  /** Called when this worker has claimed an {@link AbstractEntry} committed to the {@link RingBuffer}
+   *
+   *  @param entry committed to the {@link RingBuffer}
+   */
+  def onAvailable(entry: T)
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.util.concurrent.atomic.AtomicLong
+
+/** {@link Consumer} for one worker of a {@link WorkerPool}.  Workers claim the next sequence from the work sequence
+ *  they share, so each {@link AbstractEntry} is handled by exactly one of them.
+ *
+ *  Before claiming, a worker moves its own sequence to just behind the one it is about to claim, so the
+ *  {@link RingBuffer} cannot wrap an entry a worker is handling and dependent {@link Consumer}s never get ahead of it.
+ *
+ *  If the {@link WorkHandler} also implements {@link LifecycleAware} it will be notified just after the thread
+ *  is started and just before the thread is shutdown.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param consumerBarrier on which the worker waits for entries.
+ *  @param handler to which the claimed entries are delegated.
+ *  @param workSequence shared by the workers of the pool, holding the last sequence claimed.
+ */
+class WorkProcessor[T <: AbstractEntry](consumerBarrier: ConsumerBarrier[T], handler: WorkHandler[T], workSequence: AtomicLong)
+    extends Consumer {
+  val p1, p2, p3, p4, p5, p6, p7: Long = -1L  // cache line padding
+  @volatile private var _sequence: Long = -1L
+  val p8, p9, p10, p11, p12, p13, p14: Long = -1L // cache line padding
+
+  private var _exceptionHandler: ExceptionHandler = new FatalExceptionHandler(null)
+  @volatile private var running = true
+  private var processedSequence = true
+
+  override def sequence: Long = _sequence
+  override def sequence_(newSequence: Long) {
+    _sequence = newSequence
+    consumerBarrier.signalProducers()
+  }
+
+  override def halt() {
+    running = false
+    consumerBarrier.alert
+  }
+
+  /** Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link WorkHandler}
+   *
+   *  @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  def exceptionHandler_(newExceptionHandler: ExceptionHandler) {
+    if (null == newExceptionHandler) throw new NullPointerException();
+
+    _exceptionHandler = newExceptionHandler
+  }
+
+  /** It is ok to have another thread rerun this method once the run halted by halt() has returned, the worker
+   *  carries on with the sequence it had claimed but not yet handled so no entry is skipped.  As the workers of a
+   *  {@link WorkerPool} share their barrier, which a run clears the alert of, none may be rerun until all have
+   *  returned, see {@link WorkerPool#awaitTermination(Long, TimeUnit)}.
+   */
+  override def run {
+    running = true;
+    consumerBarrier.clearAlert()
+    if (classOf[LifecycleAware].isAssignableFrom(handler.getClass())) handler.asInstanceOf[LifecycleAware].onStart()
+
+    var entry = null.asInstanceOf[T]
+    var availableSequence = Long.MinValue
+    var nextSequence = _sequence + 1L
+    while (running) {
+      try {
+        if (processedSequence) {
+          processedSequence = false
+          do {
+            nextSequence = workSequence.get + 1L
+            _sequence = nextSequence - 1L
+          } while (!workSequence.compareAndSet(nextSequence - 1L, nextSequence))
+          consumerBarrier.signalProducers()
+        }
+
+        if (availableSequence >= nextSequence) {
+          entry = consumerBarrier.getEntry(nextSequence)
+          handler.onAvailable(entry)
+          processedSequence = true
+        } else {
+          availableSequence = consumerBarrier.waitFor(nextSequence)
+        }
+      }
+      catch {
+        case ae: AlertException => // Wake up from blocking wait and check if we should continue to run
+        case ex: Exception => {
+          _exceptionHandler.handle(ex, entry.asInstanceOf[AbstractEntry])
+          processedSequence = true
+        }
+      }
+    }
+
+    if (classOf[LifecycleAware].isAssignableFrom(handler.getClass())) handler.asInstanceOf[LifecycleAware].onShutdown()
+  }
+}
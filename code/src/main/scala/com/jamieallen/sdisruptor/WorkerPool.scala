@@ -0,0 +1,84 @@
+/*
+ * Copyright 2011 LMAX Ltd., ported to Scala by Jamie Allen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jamieallen.sdisruptor
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/** Pool of workers sharing out the {@link AbstractEntry}s of a {@link RingBuffer} so that each entry is handled by
+ *  exactly one {@link WorkHandler}, rather than every {@link BatchConsumer} seeing every entry.
+ *
+ *  The workers are {@link Consumer}s, so they are given to {@link RingBuffer#consumersToTrack_(Array)} to stop the ring
+ *  wrapping, or to {@link RingBuffer#createConsumerBarrier(Array)} for {@link Consumer}s that depend on the pool.
+ *
+ *  The pool can be started again after {@link #halt()}, once {@link #awaitTermination(Long, TimeUnit)} has seen
+ *  every worker return, so a new run cannot clear the alert on the shared barrier before an old one has seen it.
+ *
+ *  @param <T> AbstractEntry implementation storing the data for sharing during exchange or parallel coordination of an event.
+ *  @param consumerBarrier on which the workers wait for entries.
+ *  @param handlers one for each worker.
+ */
+class WorkerPool[T <: AbstractEntry](consumerBarrier: ConsumerBarrier[T], handlers: Array[WorkHandler[T]]) {
+  private[this] val workSequence = new AtomicLong(-1L)
+  private[this] val processors = handlers.map(new WorkProcessor[T](consumerBarrier, _, workSequence))
+  @volatile private[this] var running = new CountDownLatch(0)
+
+  /** Get the workers of the pool.
+   *
+   *  @return a {@link Consumer} for each worker.
+   */
+  def consumers: Array[Consumer] = processors.map(_.asInstanceOf[Consumer])
+
+  /** Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link WorkHandler}s
+   *
+   *  @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  def exceptionHandler_(exceptionHandler: ExceptionHandler) { processors.foreach(_.exceptionHandler_(exceptionHandler)) }
+
+  /** Run each worker on the executor, which needs a thread for every worker.
+   *
+   *  @param executor to run the workers.
+   *  @throws IllegalStateException if a worker of an earlier start has not yet returned.
+   */
+  def start(executor: Executor) {
+    if (0L != running.getCount) throw new IllegalStateException("Workers are still running, halt and await their termination first")
+
+    val workers = new CountDownLatch(processors.length)
+    running = workers
+    for (processor <- processors) {
+      executor.execute(new Runnable {
+        override def run() {
+          try { processor.run() }
+          finally { workers.countDown() }
+        }
+      })
+    }
+  }
+
+  /** Signal every worker to stop once it has handled the entry in hand, without waiting for them to do so.
+   */
+  def halt() { processors.foreach(_.halt()) }
+
+  /** Wait for every worker to return after {@link #halt()}, which must be done before the pool is started again.
+   *
+   *  @param timeout value.
+   *  @param units for the timeout value.
+   *  @return true if every worker has returned, false if the timeout elapsed first.
+   */
+  def awaitTermination(timeout: Long, units: TimeUnit): Boolean = running.await(timeout, units)
+}
@@ -24,9 +24,7 @@ import java.util.concurrent.Future;
 import org.junit.Assert;
 import org.junit.Test;
 
-import com.jamieallen.sdisruptor.BatchConsumer;
-import com.jamieallen.sdisruptor.ClaimStrategy;
-import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.Disruptor;
 import com.jamieallen.sdisruptor.RingBuffer;
 import com.jamieallen.sdisruptor.WaitStrategy;
 import com.lmax.disruptor.support.FizzBuzzEntry;
@@ -145,28 +143,17 @@ public final class DiamondPath1P3CPerfTest extends AbstractPerfTestQueueVsDisrup
     ///////////////////////////////////////////////////////////////////////////////////////////////
 
     private final RingBuffer<FizzBuzzEntry> ringBuffer =
-        new RingBuffer<FizzBuzzEntry>(FizzBuzzEntry.ENTRY_FACTORY, SIZE,
-                                      ClaimStrategy.Option.SINGLE_THREADED,
-                                      WaitStrategy.Option.YIELDING);
-
-    private final ConsumerBarrier<FizzBuzzEntry> consumerBarrier = ringBuffer.createConsumerBarrier();
+        RingBuffer.builder(FizzBuzzEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .singleProducer();
+    private final Disruptor<FizzBuzzEntry> disruptor =
+        new Disruptor<FizzBuzzEntry>(ringBuffer, Executors.defaultThreadFactory());
 
     private final FizzBuzzHandler fizzHandler = new FizzBuzzHandler(FizzBuzzStep.FIZZ);
-    private final BatchConsumer<FizzBuzzEntry> batchConsumerFizz =
-        new BatchConsumer<FizzBuzzEntry>(consumerBarrier, fizzHandler);
-
     private final FizzBuzzHandler buzzHandler = new FizzBuzzHandler(FizzBuzzStep.BUZZ);
-    private final BatchConsumer<FizzBuzzEntry> batchConsumerBuzz =
-        new BatchConsumer<FizzBuzzEntry>(consumerBarrier, buzzHandler);
-
-    private final ConsumerBarrier<FizzBuzzEntry> consumerBarrierFizzBuzz =
-        ringBuffer.createConsumerBarrier(batchConsumerFizz, batchConsumerBuzz);
-
     private final FizzBuzzHandler fizzBuzzHandler = new FizzBuzzHandler(FizzBuzzStep.FIZZ_BUZZ);
-    private final BatchConsumer<FizzBuzzEntry> batchConsumerFizzBuzz =
-            new BatchConsumer<FizzBuzzEntry>(consumerBarrierFizzBuzz, fizzBuzzHandler);
     {
-        ringBuffer.setTrackedConsumers(batchConsumerFizzBuzz);
+        disruptor.handleEventsWith(fizzHandler, buzzHandler).then(fizzBuzzHandler);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////////
@@ -183,10 +170,7 @@ public final class DiamondPath1P3CPerfTest extends AbstractPerfTestQueueVsDisrup
     protected long runDisruptorPass(int PassNumber) throws Exception
     {
         fizzBuzzHandler.reset();
-
-        EXECUTOR.submit(batchConsumerFizz);
-        EXECUTOR.submit(batchConsumerBuzz);
-        EXECUTOR.submit(batchConsumerFizzBuzz);
+        disruptor.start();
 
         long start = System.currentTimeMillis();
 
@@ -197,18 +181,10 @@ public final class DiamondPath1P3CPerfTest extends AbstractPerfTestQueueVsDisrup
             ringBuffer.commit(entry);
         }
 
-        final long expectedSequence = ringBuffer.getCursor();
-        while (batchConsumerFizzBuzz.getSequence() < expectedSequence)
-        {
-            // busy spin
-        }
+        disruptor.shutdown();
 
         long opsPerSecond = (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
 
-        batchConsumerFizz.halt();
-        batchConsumerBuzz.halt();
-        batchConsumerFizzBuzz.halt();
-
         Assert.assertEquals(expectedResult, fizzBuzzHandler.getFizzBuzzCounter());
 
         return opsPerSecond;
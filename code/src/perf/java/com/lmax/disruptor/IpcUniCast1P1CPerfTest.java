@@ -0,0 +1,170 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.IpcRingBuffer;
+import com.jamieallen.sdisruptor.ProducerWaitStrategy;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.ValueFlyweightEntry;
+
+/**
+ * <pre>
+ * UniCast a series of items between 1 producer and 1 consumer running in separate JVMs.
+ *
+ *        JVM 0        |                  JVM 1
+ *                     |   track to prevent wrap
+ *              +--------------------------------+
+ *              |      |                         |
+ *              v      |                         |
+ * +----+    +=====+   |   +=====+    +====+    +----+
+ * | P0 |--->| IRB |<=====>| IRB |<---| CB |    | C0 |
+ * +----+    +=====+   |   +=====+    +====+    +----+
+ *      claim    shared file       get    ^        |
+ *                     |                  |        |
+ *                     |                  +--------+
+ *                     |                    waitFor
+ *
+ * P0  - Producer 0
+ * IRB - IpcRingBuffer mapping the same file
+ * CB  - ConsumerBarrier
+ * C0  - Consumer 0
+ *
+ * The consumer JVM is started by the test with the same class path and runs {@link #main(String[])}.
+ *
+ * </pre>
+ */
+public final class IpcUniCast1P1CPerfTest
+{
+    private static final int SIZE = 1024 * 32;
+    private static final long ITERATIONS = 1000L * 1000L * 100L;
+
+    @Test
+    public void shouldCompareIpcRingBufferAcrossProcesses()
+        throws Exception
+    {
+        final int RUNS = 3;
+
+        for (int i = 0; i < RUNS; i++)
+        {
+            System.gc();
+
+            long ops = runIpcPass(i);
+
+            System.out.format("%s OpsPerSecond run %d: IpcRingBuffer=%d\n",
+                              getClass().getSimpleName(), Integer.valueOf(i), Long.valueOf(ops));
+        }
+    }
+
+    private long runIpcPass(final int passNumber) throws Exception
+    {
+        final File file = File.createTempFile(getClass().getSimpleName(), ".ring");
+        file.deleteOnExit();
+        final IpcRingBuffer<ValueFlyweightEntry> ringBuffer = newRingBuffer(file);
+
+        final Process consumerProcess =
+            new ProcessBuilder(new File(System.getProperty("java.home"), "bin/java").getPath(),
+                               "-cp", System.getProperty("java.class.path"),
+                               getClass().getName(), file.getPath(), Long.toString(ITERATIONS))
+                .redirectErrorStream(true)
+                .start();
+        final BufferedReader output = new BufferedReader(new InputStreamReader(consumerProcess.getInputStream()));
+        Assert.assertEquals("started", output.readLine());
+
+        long expectedResult = 0L;
+        long start = System.currentTimeMillis();
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            ValueFlyweightEntry entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+            expectedResult += i;
+        }
+
+        final long expectedSequence = ringBuffer.cursor();
+        while (ringBuffer.recoveredSequence(0) < expectedSequence)
+        {
+            // busy spin
+        }
+
+        long opsPerSecond = (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
+
+        Assert.assertEquals(Long.toString(expectedResult), output.readLine());
+        Assert.assertEquals(0, consumerProcess.waitFor());
+        file.delete();
+
+        return opsPerSecond;
+    }
+
+    private static IpcRingBuffer<ValueFlyweightEntry> newRingBuffer(final File file)
+    {
+        return new IpcRingBuffer<ValueFlyweightEntry>(file, ValueFlyweightEntry.ENTRY_FACTORY, SIZE, 1,
+                                                 WaitStrategy.newInstance(WaitStrategy.BusySpin()),
+                                                 ProducerWaitStrategy.newInstance(ProducerWaitStrategy.BusySpin()));
+    }
+
+    /**
+     * Consumer side of the test, run in its own JVM.
+     *
+     * @param args path of the shared file and the number of entries to consume.
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        final long iterations = Long.parseLong(args[1]);
+        final IpcRingBuffer<ValueFlyweightEntry> ringBuffer = newRingBuffer(new File(args[0]));
+        final ValueFlyweightAdditionHandler handler = new ValueFlyweightAdditionHandler();
+        final BatchConsumer<ValueFlyweightEntry> batchConsumer =
+            new BatchConsumer<ValueFlyweightEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), handler);
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+
+        final Thread thread = new Thread(batchConsumer);
+        thread.start();
+        System.out.println("started");
+
+        while (batchConsumer.sequence() < iterations - 1)
+        {
+            Thread.sleep(1);
+        }
+        batchConsumer.halt();
+        thread.join();
+
+        System.out.println(handler.value);
+    }
+
+    private static final class ValueFlyweightAdditionHandler implements BatchHandler<ValueFlyweightEntry>
+    {
+        private long value;
+
+        public void onAvailable(final ValueFlyweightEntry entry)
+        {
+            value += entry.getValue();
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
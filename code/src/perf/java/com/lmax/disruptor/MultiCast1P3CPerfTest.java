@@ -23,11 +23,8 @@ import java.util.concurrent.Future;
 import org.junit.Assert;
 import org.junit.Test;
 
-import com.jamieallen.sdisruptor.BatchConsumer;
-import com.jamieallen.sdisruptor.ClaimStrategy;
-import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.Disruptor;
 import com.jamieallen.sdisruptor.RingBuffer;
-import com.jamieallen.sdisruptor.Util;
 import com.jamieallen.sdisruptor.WaitStrategy;
 import com.lmax.disruptor.support.Operation;
 import com.lmax.disruptor.support.ValueEntry;
@@ -136,25 +133,17 @@ public final class MultiCast1P3CPerfTest extends AbstractPerfTestQueueVsDisrupto
     ///////////////////////////////////////////////////////////////////////////////////////////////
 
     private final RingBuffer<ValueEntry> ringBuffer =
-        new RingBuffer<ValueEntry>(ValueEntry.ENTRY_FACTORY, SIZE,
-                                   ClaimStrategy.Option.SINGLE_THREADED,
-                                   WaitStrategy.Option.YIELDING);
-
-    private final ConsumerBarrier<ValueEntry> consumerBarrier = ringBuffer.createConsumerBarrier();
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .singleProducer();
+    private final Disruptor<ValueEntry> disruptor = new Disruptor<ValueEntry>(ringBuffer, Executors.defaultThreadFactory());
 
     private final ValueMutationHandler[] handlers = new ValueMutationHandler[NUM_CONSUMERS];
     {
         handlers[0] = new ValueMutationHandler(Operation.ADDITION);
         handlers[1] = new ValueMutationHandler(Operation.SUBTRACTION);
         handlers[2] = new ValueMutationHandler(Operation.AND);
-    }
-
-    private final BatchConsumer[] batchConsumers = new BatchConsumer[NUM_CONSUMERS];
-    {
-        batchConsumers[0] = new BatchConsumer<ValueEntry>(consumerBarrier, handlers[0]);
-        batchConsumers[1] = new BatchConsumer<ValueEntry>(consumerBarrier, handlers[1]);
-        batchConsumers[2] = new BatchConsumer<ValueEntry>(consumerBarrier, handlers[2]);
-        ringBuffer.setTrackedConsumers(batchConsumers);
+        disruptor.handleEventsWith(handlers);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////////
@@ -223,8 +212,8 @@ public final class MultiCast1P3CPerfTest extends AbstractPerfTestQueueVsDisrupto
         for (int i = 0; i < NUM_CONSUMERS; i++)
         {
             handlers[i].reset();
-            EXECUTOR.submit(batchConsumers[i]);
         }
+        disruptor.start();
 
         long start = System.currentTimeMillis();
 
@@ -235,16 +224,11 @@ public final class MultiCast1P3CPerfTest extends AbstractPerfTestQueueVsDisrupto
             ringBuffer.commit(entry);
         }
 
-        final long expectedSequence = ringBuffer.getCursor();
-        while (Util.getMinimumSequence(batchConsumers) < expectedSequence)
-        {
-            // busy spin
-        }
+        disruptor.shutdown();
 
         long opsPerSecond = (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
         for (int i = 0; i < NUM_CONSUMERS; i++)
         {
-            batchConsumers[i].halt();
             Assert.assertEquals(results[i], handlers[i].getValue());
         }
 
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.OrderedParallelStage;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.ValueEntry;
+
+/**
+ * <pre>
+ *
+ * Validate a series of entries from 1 producer in parallel over 3 workers, then sum the results in sequence order.
+ *
+ *           +----+
+ *    +----->| W0 |-----+
+ *    |      +----+     |
+ *    |                 v
+ * +----+    +----+    +----+
+ * | P0 |--->| W1 |--->| C1 |
+ * +----+    +----+    +----+
+ *    |                 ^
+ *    |      +----+     |
+ *    +----->| W2 |-----+
+ *           +----+
+ *
+ *
+ * Single Consumer:
+ * ================
+ *
+ *              track to prevent wrap
+ *              +-----------------------------------+
+ *              |                                   |
+ *              |                                   v
+ * +----+    +====+    +=====+    +----+    +=====+    +----+
+ * | P0 |--->| RB |<---| CB0 |<---| C0 |<---| CB1 |<---| C1 |
+ * +----+    +====+    +=====+    +----+    +=====+    +----+
+ *
+ *
+ * Ordered Parallel Stage:
+ * =======================
+ *
+ *              track to prevent wrap
+ *              +-----------------------------------------+
+ *              |                                         |
+ *              |                                         v
+ * +----+    +====+    +=====+    +----------+    +=====+    +----+
+ * | P0 |--->| RB |<---| CB0 |<---| W0,W1,W2 |<---| CB1 |<---| C1 |
+ * +----+    +====+    +=====+    +----------+    +=====+    +----+
+ *                                 stage sequence
+ *
+ * P0 - Producer 0
+ * RB - RingBuffer
+ * CB0 - ConsumerBarrier 0
+ * C0 - Consumer 0, validating every entry
+ * W0 - Worker 0 of an OrderedParallelStage, validating every third entry
+ * CB1 - ConsumerBarrier 1, tracking C0 or the stage sequence
+ * C1 - Consumer 1, summing the validated entries in sequence order
+ *
+ * </pre>
+ */
+public final class OrderedParallelStage1P3W1CPerfTest
+{
+    private static final int NUM_WORKERS = 3;
+    private static final int SIZE = 1024 * 32;
+    private static final long ITERATIONS = 1000L * 1000L * 10L;
+    private static final int ROUNDS = 64;
+    private static final long VALIDATED = 1L << 62;
+    private final ExecutorService EXECUTOR = Executors.newFixedThreadPool(NUM_WORKERS + 1);
+
+    private final long expectedResult;
+    {
+        long temp = 0L;
+        for (long i = 0L; i < ITERATIONS; i++)
+        {
+            temp += validate(i);
+        }
+
+        expectedResult = temp;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final RingBuffer<ValueEntry> singleRingBuffer =
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .singleProducer();
+    private final BatchConsumer<ValueEntry> validatingConsumer =
+        new BatchConsumer<ValueEntry>(singleRingBuffer.createConsumerBarrier(new Consumer[0]), new ValidationHandler());
+    private final OrderedSummingHandler singleSummingHandler = new OrderedSummingHandler();
+    private final BatchConsumer<ValueEntry> singleSummingConsumer =
+        new BatchConsumer<ValueEntry>(singleRingBuffer.createConsumerBarrier(new Consumer[] { validatingConsumer }),
+                                      singleSummingHandler);
+    {
+        singleRingBuffer.consumersToTrack_(new Consumer[] { singleSummingConsumer });
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final RingBuffer<ValueEntry> stageRingBuffer =
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .singleProducer();
+    private final BatchHandler<ValueEntry>[] handlers = newValidationHandlers();
+    private final OrderedParallelStage<ValueEntry> stage =
+        new OrderedParallelStage<ValueEntry>(stageRingBuffer.createConsumerBarrier(new Consumer[0]), handlers);
+    private final OrderedSummingHandler stageSummingHandler = new OrderedSummingHandler();
+    private final BatchConsumer<ValueEntry> stageSummingConsumer =
+        new BatchConsumer<ValueEntry>(stageRingBuffer.createConsumerBarrier(new Consumer[] { stage.consumer() }),
+                                      stageSummingHandler);
+    {
+        stageRingBuffer.consumersToTrack_(new Consumer[] { stageSummingConsumer });
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Test
+    public void shouldCompareOrderedParallelStageVsSingleConsumer()
+        throws Exception
+    {
+        final int RUNS = 3;
+        long singleOps = 0L;
+        long stageOps = 0L;
+
+        for (int i = 0; i < RUNS; i++)
+        {
+            System.gc();
+
+            singleOps = runSingleConsumerPass();
+            stageOps = runStagePass();
+
+            System.out.format("%s OpsPerSecond run %d: SingleConsumer=%d, OrderedParallelStage=%d\n",
+                              getClass().getSimpleName(), Integer.valueOf(i),
+                              Long.valueOf(singleOps), Long.valueOf(stageOps));
+        }
+
+        // the workers can only scale when they each have a core
+        if (Runtime.getRuntime().availableProcessors() > NUM_WORKERS)
+        {
+            Assert.assertTrue("Performance degraded", stageOps > singleOps);
+        }
+    }
+
+    private long runSingleConsumerPass()
+    {
+        singleSummingHandler.reset();
+        EXECUTOR.submit(validatingConsumer);
+        EXECUTOR.submit(singleSummingConsumer);
+
+        final long opsPerSecond = publish(singleRingBuffer, singleSummingConsumer);
+        validatingConsumer.halt();
+        singleSummingConsumer.halt();
+
+        singleSummingHandler.assertResult();
+
+        return opsPerSecond;
+    }
+
+    private long runStagePass()
+    {
+        stageSummingHandler.reset();
+        stage.start(EXECUTOR);
+        EXECUTOR.submit(stageSummingConsumer);
+
+        final long opsPerSecond = publish(stageRingBuffer, stageSummingConsumer);
+        stage.halt();
+        stageSummingConsumer.halt();
+
+        stageSummingHandler.assertResult();
+
+        return opsPerSecond;
+    }
+
+    private long publish(final RingBuffer<ValueEntry> ringBuffer, final Consumer lastConsumer)
+    {
+        long start = System.currentTimeMillis();
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            ValueEntry entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+        }
+
+        final long expectedSequence = ringBuffer.cursor();
+        while (lastConsumer.sequence() < expectedSequence)
+        {
+            // busy spin
+        }
+
+        return (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BatchHandler<ValueEntry>[] newValidationHandlers()
+    {
+        final BatchHandler<ValueEntry>[] handlers = new BatchHandler[NUM_WORKERS];
+        for (int i = 0; i < NUM_WORKERS; i++)
+        {
+            handlers[i] = new ValidationHandler();
+        }
+
+        return handlers;
+    }
+
+    private static long validate(final long value)
+    {
+        long x = value + 1L;
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+        }
+
+        return x & 0xFFFFL;
+    }
+
+    private static final class ValidationHandler implements BatchHandler<ValueEntry>
+    {
+        public void onAvailable(final ValueEntry entry)
+        {
+            entry.setValue(VALIDATED | validate(entry.getValue()));
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+
+    private final class OrderedSummingHandler implements BatchHandler<ValueEntry>
+    {
+        private volatile long total;
+        private volatile long nextSequence;
+        private volatile boolean ordered;
+
+        public void reset()
+        {
+            total = 0L;
+            nextSequence = -1L;
+            ordered = true;
+        }
+
+        public void onAvailable(final ValueEntry entry)
+        {
+            if (nextSequence == -1L)
+            {
+                nextSequence = entry.sequence();
+            }
+            ordered &= entry.sequence() == nextSequence && (entry.getValue() & VALIDATED) != 0L;
+            nextSequence++;
+            total += entry.getValue() & ~VALIDATED;
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+
+        public void assertResult()
+        {
+            Assert.assertTrue("entries not validated in order", ordered);
+            Assert.assertEquals(expectedResult, total);
+        }
+    }
+}
@@ -29,9 +29,7 @@ import java.util.concurrent.Future;
 
 import org.junit.Test;
 
-import com.jamieallen.sdisruptor.BatchConsumer;
-import com.jamieallen.sdisruptor.ClaimStrategy;
-import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.Disruptor;
 import com.jamieallen.sdisruptor.RingBuffer;
 import com.jamieallen.sdisruptor.WaitStrategy;
 import com.jamieallen.sdisruptor.collections.Histogram;
@@ -153,26 +151,16 @@ public final class Pipeline3StepLatencyPerfTest
     ///////////////////////////////////////////////////////////////////////////////////////////////
 
     private final RingBuffer<ValueEntry> ringBuffer =
-        new RingBuffer<ValueEntry>(ValueEntry.ENTRY_FACTORY, SIZE,
-                                   ClaimStrategy.Option.SINGLE_THREADED,
-                                   WaitStrategy.Option.BUSY_SPIN);
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.BusySpin()))
+                  .singleProducer();
+    private final Disruptor<ValueEntry> disruptor = new Disruptor<ValueEntry>(ringBuffer, Executors.defaultThreadFactory());
 
-    private final ConsumerBarrier<ValueEntry> stepOneConsumerBarrier = ringBuffer.createConsumerBarrier();
     private final LatencyStepHandler stepOneFunctionHandler = new LatencyStepHandler(FunctionStep.ONE, histogram, nanoTimeCost);
-    private final BatchConsumer<ValueEntry> stepOneBatchConsumer =
-        new BatchConsumer<ValueEntry>(stepOneConsumerBarrier, stepOneFunctionHandler);
-
-    private final ConsumerBarrier<ValueEntry> stepTwoConsumerBarrier = ringBuffer.createConsumerBarrier(stepOneBatchConsumer);
     private final LatencyStepHandler stepTwoFunctionHandler = new LatencyStepHandler(FunctionStep.TWO, histogram, nanoTimeCost);
-    private final BatchConsumer<ValueEntry> stepTwoBatchConsumer =
-        new BatchConsumer<ValueEntry>(stepTwoConsumerBarrier, stepTwoFunctionHandler);
-
-    private final ConsumerBarrier<ValueEntry> stepThreeConsumerBarrier = ringBuffer.createConsumerBarrier(stepTwoBatchConsumer);
     private final LatencyStepHandler stepThreeFunctionHandler = new LatencyStepHandler(FunctionStep.THREE, histogram, nanoTimeCost);
-    private final BatchConsumer<ValueEntry> stepThreeBatchConsumer =
-        new BatchConsumer<ValueEntry>(stepThreeConsumerBarrier, stepThreeFunctionHandler);
     {
-        ringBuffer.setTrackedConsumers(stepThreeBatchConsumer);
+        disruptor.handleEventsWith(stepOneFunctionHandler).then(stepTwoFunctionHandler).then(stepThreeFunctionHandler);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////////
@@ -218,9 +206,7 @@ public final class Pipeline3StepLatencyPerfTest
 
     private void runDisruptorPass()
     {
-        EXECUTOR.submit(stepOneBatchConsumer);
-        EXECUTOR.submit(stepTwoBatchConsumer);
-        EXECUTOR.submit(stepThreeBatchConsumer);
+        disruptor.start();
 
         for (long i = 0; i < ITERATIONS; i++)
         {
@@ -235,15 +221,7 @@ public final class Pipeline3StepLatencyPerfTest
             }
         }
 
-        final long expectedSequence = ringBuffer.getCursor();
-        while (stepThreeBatchConsumer.getSequence() < expectedSequence)
-        {
-            // busy spin
-        }
-
-        stepOneBatchConsumer.halt();
-        stepTwoBatchConsumer.halt();
-        stepThreeBatchConsumer.halt();
+        disruptor.shutdown();
     }
 
     private void runQueuePass() throws Exception
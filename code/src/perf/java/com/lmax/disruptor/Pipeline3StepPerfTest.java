@@ -24,9 +24,7 @@ import java.util.concurrent.Future;
 import org.junit.Assert;
 import org.junit.Test;
 
-import com.jamieallen.sdisruptor.BatchConsumer;
-import com.jamieallen.sdisruptor.ClaimStrategy;
-import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.Disruptor;
 import com.jamieallen.sdisruptor.RingBuffer;
 import com.jamieallen.sdisruptor.WaitStrategy;
 import com.lmax.disruptor.support.FunctionEntry;
@@ -130,26 +128,17 @@ public final class Pipeline3StepPerfTest extends AbstractPerfTestQueueVsDisrupto
     ///////////////////////////////////////////////////////////////////////////////////////////////
 
     private final RingBuffer<FunctionEntry> ringBuffer =
-        new RingBuffer<FunctionEntry>(FunctionEntry.ENTRY_FACTORY, SIZE,
-                                      ClaimStrategy.Option.SINGLE_THREADED,
-                                      WaitStrategy.Option.YIELDING);
+        RingBuffer.builder(FunctionEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .singleProducer();
+    private final Disruptor<FunctionEntry> disruptor =
+        new Disruptor<FunctionEntry>(ringBuffer, Executors.defaultThreadFactory());
 
-    private final ConsumerBarrier<FunctionEntry> stepOneConsumerBarrier = ringBuffer.createConsumerBarrier();
     private final FunctionHandler stepOneFunctionHandler = new FunctionHandler(FunctionStep.ONE);
-    private final BatchConsumer<FunctionEntry> stepOneBatchConsumer =
-        new BatchConsumer<FunctionEntry>(stepOneConsumerBarrier, stepOneFunctionHandler);
-
-    private final ConsumerBarrier<FunctionEntry> stepTwoConsumerBarrier = ringBuffer.createConsumerBarrier(stepOneBatchConsumer);
     private final FunctionHandler stepTwoFunctionHandler = new FunctionHandler(FunctionStep.TWO);
-    private final BatchConsumer<FunctionEntry> stepTwoBatchConsumer =
-        new BatchConsumer<FunctionEntry>(stepTwoConsumerBarrier, stepTwoFunctionHandler);
-
-    private final ConsumerBarrier<FunctionEntry> stepThreeConsumerBarrier = ringBuffer.createConsumerBarrier(stepTwoBatchConsumer);
     private final FunctionHandler stepThreeFunctionHandler = new FunctionHandler(FunctionStep.THREE);
-    private final BatchConsumer<FunctionEntry> stepThreeBatchConsumer =
-        new BatchConsumer<FunctionEntry>(stepThreeConsumerBarrier, stepThreeFunctionHandler);
     {
-        ringBuffer.setTrackedConsumers(stepThreeBatchConsumer);
+        disruptor.handleEventsWith(stepOneFunctionHandler).then(stepTwoFunctionHandler).then(stepThreeFunctionHandler);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////////
@@ -166,10 +155,7 @@ public final class Pipeline3StepPerfTest extends AbstractPerfTestQueueVsDisrupto
     protected long runDisruptorPass(final int passNumber)
     {
         stepThreeFunctionHandler.reset();
-
-        EXECUTOR.submit(stepOneBatchConsumer);
-        EXECUTOR.submit(stepTwoBatchConsumer);
-        EXECUTOR.submit(stepThreeBatchConsumer);
+        disruptor.start();
 
         long start = System.currentTimeMillis();
 
@@ -182,18 +168,10 @@ public final class Pipeline3StepPerfTest extends AbstractPerfTestQueueVsDisrupto
             ringBuffer.commit(entry);
         }
 
-        final long expectedSequence = ringBuffer.getCursor();
-        while (stepThreeBatchConsumer.getSequence() < expectedSequence)
-        {
-            // busy spin
-        }
+        disruptor.shutdown();
 
         long opsPerSecond = (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
 
-        stepOneBatchConsumer.halt();
-        stepTwoBatchConsumer.halt();
-        stepThreeBatchConsumer.halt();
-
         Assert.assertEquals(expectedResult, stepThreeFunctionHandler.getStepThreeCounter());
 
         return opsPerSecond;
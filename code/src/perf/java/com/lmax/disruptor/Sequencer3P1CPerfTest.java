@@ -24,9 +24,7 @@ import java.util.concurrent.Future;
 
 import org.junit.Test;
 
-import com.jamieallen.sdisruptor.BatchConsumer;
-import com.jamieallen.sdisruptor.ClaimStrategy;
-import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.Disruptor;
 import com.jamieallen.sdisruptor.RingBuffer;
 import com.jamieallen.sdisruptor.WaitStrategy;
 import com.lmax.disruptor.support.ValueAdditionHandler;
@@ -124,20 +122,19 @@ public final class Sequencer3P1CPerfTest extends AbstractPerfTestQueueVsDisrupto
     ///////////////////////////////////////////////////////////////////////////////////////////////
 
     private final RingBuffer<ValueEntry> ringBuffer =
-        new RingBuffer<ValueEntry>(ValueEntry.ENTRY_FACTORY, SIZE,
-                                   ClaimStrategy.Option.MULTI_THREADED,
-                                   WaitStrategy.Option.YIELDING);
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .multiProducer();
+    private final Disruptor<ValueEntry> disruptor = new Disruptor<ValueEntry>(ringBuffer, Executors.defaultThreadFactory());
 
-    private final ConsumerBarrier<ValueEntry> consumerBarrier = ringBuffer.createConsumerBarrier();
     private final ValueAdditionHandler handler = new ValueAdditionHandler();
-    private final BatchConsumer<ValueEntry> batchConsumer = new BatchConsumer<ValueEntry>(consumerBarrier, handler);
     private final ValueProducer[] valueProducers = new ValueProducer[NUM_PRODUCERS];
     {
         valueProducers[0] = new ValueProducer(cyclicBarrier, ringBuffer, ITERATIONS);
         valueProducers[1] = new ValueProducer(cyclicBarrier, ringBuffer, ITERATIONS);
         valueProducers[2] = new ValueProducer(cyclicBarrier, ringBuffer, ITERATIONS);
 
-        ringBuffer.setTrackedConsumers(batchConsumer);
+        disruptor.handleEventsWith(handler);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////////
@@ -175,7 +172,7 @@ public final class Sequencer3P1CPerfTest extends AbstractPerfTestQueueVsDisrupto
         }
 
         long opsPerSecond = (NUM_PRODUCERS * ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
-        batchConsumer.halt();
+        queueConsumer.halt();
         consumerFuture.cancel(true);
 
         return opsPerSecond;
@@ -189,7 +186,7 @@ public final class Sequencer3P1CPerfTest extends AbstractPerfTestQueueVsDisrupto
         {
             futures[i] = EXECUTOR.submit(valueProducers[i]);
         }
-        EXECUTOR.submit(batchConsumer);
+        disruptor.start();
 
         long start = System.currentTimeMillis();
         cyclicBarrier.await();
@@ -199,14 +196,9 @@ public final class Sequencer3P1CPerfTest extends AbstractPerfTestQueueVsDisrupto
             futures[i].get();
         }
 
-        final long expectedSequence = (ITERATIONS * NUM_PRODUCERS * (passNumber + 1L)) - 1L;
-        while (expectedSequence > batchConsumer.getSequence())
-        {
-            // busy spin
-        }
+        disruptor.shutdown();
 
         long opsPerSecond = (NUM_PRODUCERS * ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
-        batchConsumer.halt();
 
         return opsPerSecond;
     }
@@ -24,9 +24,7 @@ import java.util.concurrent.Future;
 import org.junit.Assert;
 import org.junit.Test;
 
-import com.jamieallen.sdisruptor.BatchConsumer;
-import com.jamieallen.sdisruptor.ClaimStrategy;
-import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.Disruptor;
 import com.jamieallen.sdisruptor.RingBuffer;
 import com.jamieallen.sdisruptor.SequenceBatch;
 import com.jamieallen.sdisruptor.WaitStrategy;
@@ -104,14 +102,13 @@ public final class UniCast1P1CBatchPerfTest extends AbstractPerfTestQueueVsDisru
     ///////////////////////////////////////////////////////////////////////////////////////////////
 
     private final RingBuffer<ValueEntry> ringBuffer =
-        new RingBuffer<ValueEntry>(ValueEntry.ENTRY_FACTORY, SIZE,
-                                   ClaimStrategy.Option.SINGLE_THREADED,
-                                   WaitStrategy.Option.YIELDING);
-    private final ConsumerBarrier<ValueEntry> consumerBarrier = ringBuffer.createConsumerBarrier();
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .singleProducer();
+    private final Disruptor<ValueEntry> disruptor = new Disruptor<ValueEntry>(ringBuffer, Executors.defaultThreadFactory());
     private final ValueAdditionHandler handler = new ValueAdditionHandler();
-    private final BatchConsumer<ValueEntry> batchConsumer = new BatchConsumer<ValueEntry>(consumerBarrier, handler);
     {
-        ringBuffer.setTrackedConsumers(batchConsumer);
+        disruptor.handleEventsWith(handler);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////////
@@ -155,7 +152,7 @@ public final class UniCast1P1CBatchPerfTest extends AbstractPerfTestQueueVsDisru
     protected long runDisruptorPass(final int passNumber) throws InterruptedException
     {
         handler.reset();
-        EXECUTOR.submit(batchConsumer);
+        disruptor.start();
 
         final int batchSize = 10;
         final SequenceBatch sequenceBatch = new SequenceBatch(batchSize);
@@ -166,22 +163,17 @@ public final class UniCast1P1CBatchPerfTest extends AbstractPerfTestQueueVsDisru
         for (long i = 0; i < ITERATIONS; i += batchSize)
         {
             ringBuffer.nextEntries(sequenceBatch);
-            for (long c = sequenceBatch.getStart(), end = sequenceBatch.getEnd(); c <= end; c++)
+            for (long c = sequenceBatch.getStart(), end = sequenceBatch.end(); c <= end; c++)
             {
-                ValueEntry entry = ringBuffer.getEntry(c);
+                ValueEntry entry = ringBuffer.entry(c);
                 entry.setValue(offset++);
             }
             ringBuffer.commit(sequenceBatch);
         }
 
-        final long expectedSequence = ringBuffer.getCursor();
-        while (batchConsumer.getSequence() < expectedSequence)
-        {
-            // busy spin
-        }
+        disruptor.shutdown();
 
         long opsPerSecond = (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
-        batchConsumer.halt();
 
         Assert.assertEquals(expectedResult, handler.getValue());
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.ValueAdditionHandler;
+import com.lmax.disruptor.support.ValueEntry;
+
+/**
+ * <pre>
+ * UniCast a series of items between 1 producer and 1 consumer comparing the {@link RingBuffer}
+ * specialised for a single producer against the multi producer one driven by a single thread.
+ *
+ * The single producer ring claims with a plain increment and commits by setting the cursor, the
+ * multi producer ring pays for an atomic claim and a check of the cursor on every commit.
+ *
+ * This compares throughput only.  That the single producer path does not branch on configuration
+ * per publish follows from {@link com.jamieallen.sdisruptor.SingleProducerRingBuffer} being a final
+ * class with its claim strategy in a final field, not from anything measured here.
+ *
+ * +----+    +====+    +====+    +----+
+ * | P0 |--->| RB |<---| CB |    | C0 |
+ * +----+    +====+    +====+    +----+
+ *
+ * P0 - Producer 0
+ * RB - RingBuffer
+ * CB - ConsumerBarrier
+ * C0 - Consumer 0
+ * </pre>
+ */
+public final class UniCast1P1CClaimStrategyPerfTest
+{
+    private static final int SIZE = 1024 * 32;
+    private static final long ITERATIONS = 1000L * 1000L * 500L;
+    private final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final long expectedResult;
+    {
+        long temp = 0L;
+        for (long i = 0L; i < ITERATIONS; i++)
+        {
+            temp += i;
+        }
+
+        expectedResult = temp;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final RingBuffer<ValueEntry> singleProducerRingBuffer =
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .singleProducer();
+
+    private final RingBuffer<ValueEntry> multiProducerRingBuffer =
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .multiProducer();
+
+    private final ValueAdditionHandler handler = new ValueAdditionHandler();
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Test
+    public void shouldCompareSingleProducerVsMultiProducerRingBuffer()
+        throws Exception
+    {
+        final int RUNS = 3;
+        long singleProducerOps = 0L;
+        long multiProducerOps = 0L;
+
+        for (int i = 0; i < RUNS; i++)
+        {
+            System.gc();
+
+            singleProducerOps = runPass(singleProducerRingBuffer);
+            multiProducerOps = runPass(multiProducerRingBuffer);
+
+            System.out.format("%s OpsPerSecond run %d: SingleProducer=%d, MultiProducer=%d\n",
+                              getClass().getSimpleName(), Integer.valueOf(i),
+                              Long.valueOf(singleProducerOps), Long.valueOf(multiProducerOps));
+        }
+
+        Assert.assertTrue("Performance degraded", singleProducerOps > multiProducerOps);
+    }
+
+    private long runPass(final RingBuffer<ValueEntry> ringBuffer) throws InterruptedException
+    {
+        final BatchConsumer<ValueEntry> batchConsumer =
+            new BatchConsumer<ValueEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), handler);
+        batchConsumer.sequence_(ringBuffer.cursor());
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+
+        handler.reset();
+        EXECUTOR.submit(batchConsumer);
+        long start = System.currentTimeMillis();
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            ValueEntry entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+        }
+
+        final long expectedSequence = ringBuffer.cursor();
+        while (batchConsumer.sequence() < expectedSequence)
+        {
+            // busy spin
+        }
+
+        long opsPerSecond = (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
+        batchConsumer.halt();
+
+        Assert.assertEquals(expectedResult, handler.getValue());
+
+        return opsPerSecond;
+    }
+}
@@ -25,10 +25,14 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.jamieallen.sdisruptor.BatchConsumer;
-import com.jamieallen.sdisruptor.ClaimStrategy;
+import com.jamieallen.sdisruptor.Consumer;
 import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.LongBatchConsumer;
+import com.jamieallen.sdisruptor.LongRingBuffer;
+import com.jamieallen.sdisruptor.ProducerWaitStrategy;
 import com.jamieallen.sdisruptor.RingBuffer;
 import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.LongValueAdditionHandler;
 import com.lmax.disruptor.support.ValueAdditionHandler;
 import com.lmax.disruptor.support.ValueAdditionQueueConsumer;
 import com.lmax.disruptor.support.ValueEntry;
@@ -74,6 +78,12 @@ import com.lmax.disruptor.support.ValueEntry;
  * CB - ConsumerBarrier
  * C0 - Consumer 0
  *
+ * The same topology is also run over a LongRingBuffer, which carries the values in a long[]
+ * rather than in ValueEntry objects, for comparison with the RingBuffer.
+ *
+ * The RingBuffer is also run with the Blocking and LiteBlocking wait strategies to compare the cost of
+ * signalling consumers on every commit against signalling only when a consumer is waiting.
+ *
  * </pre>
  */
 public final class UniCast1P1CPerfTest extends AbstractPerfTestQueueVsDisruptor
@@ -101,14 +111,51 @@ public final class UniCast1P1CPerfTest extends AbstractPerfTestQueueVsDisruptor
     ///////////////////////////////////////////////////////////////////////////////////////////////
 
     private final RingBuffer<ValueEntry> ringBuffer =
-        new RingBuffer<ValueEntry>(ValueEntry.ENTRY_FACTORY, SIZE,
-                                   ClaimStrategy.Option.SINGLE_THREADED,
-                                   WaitStrategy.Option.YIELDING);
-    private final ConsumerBarrier<ValueEntry> consumerBarrier = ringBuffer.createConsumerBarrier();
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .singleProducer();
+    private final ConsumerBarrier<ValueEntry> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
     private final ValueAdditionHandler handler = new ValueAdditionHandler();
     private final BatchConsumer<ValueEntry> batchConsumer = new BatchConsumer<ValueEntry>(consumerBarrier, handler);
     {
-        ringBuffer.setTrackedConsumers(batchConsumer);
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final LongRingBuffer longRingBuffer =
+        new LongRingBuffer(SIZE,
+                           WaitStrategy.newInstance(WaitStrategy.Yielding()),
+                           ProducerWaitStrategy.newInstance(ProducerWaitStrategy.Yielding()));
+    private final LongValueAdditionHandler longHandler = new LongValueAdditionHandler();
+    private final LongBatchConsumer longBatchConsumer =
+        new LongBatchConsumer(longRingBuffer.createConsumerBarrier(new Consumer[0]), longHandler);
+    {
+        longRingBuffer.consumersToTrack_(new Consumer[] { longBatchConsumer });
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final RingBuffer<ValueEntry> blockingRingBuffer =
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Blocking()))
+                  .singleProducer();
+    private final ValueAdditionHandler blockingHandler = new ValueAdditionHandler();
+    private final BatchConsumer<ValueEntry> blockingBatchConsumer =
+        new BatchConsumer<ValueEntry>(blockingRingBuffer.createConsumerBarrier(new Consumer[0]), blockingHandler);
+    {
+        blockingRingBuffer.consumersToTrack_(new Consumer[] { blockingBatchConsumer });
+    }
+
+    private final RingBuffer<ValueEntry> liteBlockingRingBuffer =
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.LiteBlocking()))
+                  .singleProducer();
+    private final ValueAdditionHandler liteBlockingHandler = new ValueAdditionHandler();
+    private final BatchConsumer<ValueEntry> liteBlockingBatchConsumer =
+        new BatchConsumer<ValueEntry>(liteBlockingRingBuffer.createConsumerBarrier(new Consumer[0]), liteBlockingHandler);
+    {
+        liteBlockingRingBuffer.consumersToTrack_(new Consumer[] { liteBlockingBatchConsumer });
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////////
@@ -121,6 +168,48 @@ public final class UniCast1P1CPerfTest extends AbstractPerfTestQueueVsDisruptor
         testImplementations();
     }
 
+    @Test
+    public void shouldCompareLongRingBufferVsRingBuffer()
+        throws Exception
+    {
+        final int RUNS = 3;
+        long disruptorOps = 0L;
+        long longRingBufferOps = 0L;
+
+        for (int i = 0; i < RUNS; i++)
+        {
+            System.gc();
+
+            disruptorOps = runDisruptorPass(i);
+            longRingBufferOps = runLongRingBufferPass(i);
+
+            System.out.format("%s OpsPerSecond run %d: RingBuffer=%d, LongRingBuffer=%d\n",
+                              getClass().getSimpleName(), Integer.valueOf(i),
+                              Long.valueOf(disruptorOps), Long.valueOf(longRingBufferOps));
+        }
+    }
+
+    @Test
+    public void shouldCompareBlockingVsLiteBlocking()
+        throws Exception
+    {
+        final int RUNS = 3;
+        long blockingOps = 0L;
+        long liteBlockingOps = 0L;
+
+        for (int i = 0; i < RUNS; i++)
+        {
+            System.gc();
+
+            blockingOps = runRingBufferPass(blockingRingBuffer, blockingBatchConsumer, blockingHandler);
+            liteBlockingOps = runRingBufferPass(liteBlockingRingBuffer, liteBlockingBatchConsumer, liteBlockingHandler);
+
+            System.out.format("%s OpsPerSecond run %d: Blocking=%d, LiteBlocking=%d\n",
+                              getClass().getSimpleName(), Integer.valueOf(i),
+                              Long.valueOf(blockingOps), Long.valueOf(liteBlockingOps));
+        }
+    }
+
     @Override
     protected long runQueuePass(final int passNumber) throws InterruptedException
     {
@@ -150,6 +239,13 @@ public final class UniCast1P1CPerfTest extends AbstractPerfTestQueueVsDisruptor
 
     @Override
     protected long runDisruptorPass(final int passNumber) throws InterruptedException
+    {
+        return runRingBufferPass(ringBuffer, batchConsumer, handler);
+    }
+
+    private long runRingBufferPass(final RingBuffer<ValueEntry> ringBuffer,
+                                   final BatchConsumer<ValueEntry> batchConsumer,
+                                   final ValueAdditionHandler handler)
     {
         handler.reset();
         EXECUTOR.submit(batchConsumer);
@@ -162,8 +258,8 @@ public final class UniCast1P1CPerfTest extends AbstractPerfTestQueueVsDisruptor
             ringBuffer.commit(entry);
         }
 
-        final long expectedSequence = ringBuffer.getCursor();
-        while (batchConsumer.getSequence() < expectedSequence)
+        final long expectedSequence = ringBuffer.cursor();
+        while (batchConsumer.sequence() < expectedSequence)
         {
             // busy spin
         }
@@ -175,4 +271,29 @@ public final class UniCast1P1CPerfTest extends AbstractPerfTestQueueVsDisruptor
 
         return opsPerSecond;
     }
+
+    protected long runLongRingBufferPass(final int passNumber) throws InterruptedException
+    {
+        longHandler.reset();
+        EXECUTOR.submit(longBatchConsumer);
+        long start = System.currentTimeMillis();
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            longRingBuffer.publish(i);
+        }
+
+        final long expectedSequence = longRingBuffer.cursor();
+        while (longBatchConsumer.sequence() < expectedSequence)
+        {
+            // busy spin
+        }
+
+        long opsPerSecond = (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
+        longBatchConsumer.halt();
+
+        Assert.assertEquals(expectedResult, longHandler.getValue());
+
+        return opsPerSecond;
+    }
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.Util;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.jamieallen.sdisruptor.WorkHandler;
+import com.jamieallen.sdisruptor.WorkerPool;
+import com.lmax.disruptor.support.ValueEntry;
+
+/**
+ * <pre>
+ *
+ * Share a series of CPU bound validation tasks from 1 producer between 3 workers, each task handled once.
+ *
+ *           +----+
+ *    +----->| W0 |
+ *    |      +----+
+ *    |
+ * +----+    +----+
+ * | P0 |--->| W1 |
+ * +----+    +----+
+ *    |
+ *    |      +----+
+ *    +----->| W2 |
+ *           +----+
+ *
+ *
+ * ThreadPoolExecutor Based:
+ * =========================
+ *
+ *      execute             take
+ * +----+    +====+    +----------+
+ * | P0 |--->| Q0 |<---| W0,W1,W2 |
+ * +----+    +====+    +----------+
+ *
+ * P0 - Producer 0
+ * Q0 - Work queue of a ThreadPoolExecutor, a Runnable per task
+ * W0 - Worker 0
+ *
+ *
+ * Disruptor:
+ * ==========
+ *              track to prevent wrap
+ *             +----------------------+
+ *             |                      |
+ *             |                      v
+ * +----+    +====+    +====+    +----------+
+ * | P0 |--->| RB |<---| CB |    | W0,W1,W2 |
+ * +----+    +====+    +====+    +----------+
+ *      claim      get    ^           |
+ *                        |           |
+ *                        +-----------+
+ *                 waitFor, claim from shared work sequence
+ *
+ * P0 - Producer 0
+ * RB - RingBuffer
+ * CB - ConsumerBarrier
+ * W0 - WorkProcessor 0 of a WorkerPool
+ *
+ * </pre>
+ */
+public final class WorkerPool1P3WPerfTest extends AbstractPerfTestQueueVsDisruptor
+{
+    private static final int NUM_WORKERS = 3;
+    private static final int SIZE = 1024 * 32;
+    private static final long ITERATIONS = 1000L * 1000L * 10L;
+    private static final int ROUNDS = 64;
+    private final ExecutorService EXECUTOR = Executors.newFixedThreadPool(NUM_WORKERS);
+
+    private final long expectedResult;
+    {
+        long temp = 0L;
+        for (long i = 0L; i < ITERATIONS; i++)
+        {
+            temp += validate(i);
+        }
+
+        expectedResult = temp;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final List<long[]> threadTotals = new CopyOnWriteArrayList<long[]>();
+    private final ThreadLocal<long[]> threadTotal = new ThreadLocal<long[]>()
+    {
+        @Override
+        protected long[] initialValue()
+        {
+            long[] total = new long[1];
+            threadTotals.add(total);
+            return total;
+        }
+    };
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final RingBuffer<ValueEntry> ringBuffer =
+        RingBuffer.builder(ValueEntry.ENTRY_FACTORY).size(SIZE)
+                  .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                  .singleProducer();
+    private final ValidationHandler[] handlers = new ValidationHandler[NUM_WORKERS];
+    {
+        for (int i = 0; i < NUM_WORKERS; i++)
+        {
+            handlers[i] = new ValidationHandler();
+        }
+    }
+    @SuppressWarnings("unchecked")
+    private final WorkerPool<ValueEntry> workerPool =
+        new WorkerPool<ValueEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), (WorkHandler<ValueEntry>[])handlers);
+    {
+        ringBuffer.consumersToTrack_(workerPool.consumers());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Test
+    @Override
+    public void shouldCompareDisruptorVsQueues()
+        throws Exception
+    {
+        testImplementations();
+    }
+
+    @Override
+    protected long runQueuePass(final int passNumber) throws InterruptedException
+    {
+        threadTotals.clear();
+        final ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(NUM_WORKERS, NUM_WORKERS, 0L, TimeUnit.MILLISECONDS,
+                                   new ArrayBlockingQueue<Runnable>(SIZE), new BlockingRejectionHandler());
+        long start = System.currentTimeMillis();
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            final long value = i;
+            executor.execute(new Runnable()
+            {
+                public void run()
+                {
+                    threadTotal.get()[0] += validate(value);
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(1L, TimeUnit.HOURS);
+
+        long opsPerSecond = (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
+
+        long result = 0L;
+        for (long[] total : threadTotals)
+        {
+            result += total[0];
+        }
+        Assert.assertEquals(expectedResult, result);
+
+        return opsPerSecond;
+    }
+
+    @Override
+    protected long runDisruptorPass(final int passNumber)
+    {
+        for (ValidationHandler handler : handlers)
+        {
+            handler.total = 0L;
+        }
+        workerPool.start(EXECUTOR);
+        long start = System.currentTimeMillis();
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            ValueEntry entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+        }
+
+        final long expectedSequence = ringBuffer.cursor();
+        while (Util.getMinimumSequence(workerPool.consumers()) < expectedSequence)
+        {
+            // busy spin
+        }
+
+        long opsPerSecond = (ITERATIONS * 1000L) / (System.currentTimeMillis() - start);
+        workerPool.halt();
+        Assert.assertTrue(workerPool.awaitTermination(5, TimeUnit.SECONDS));
+
+        long result = 0L;
+        for (ValidationHandler handler : handlers)
+        {
+            result += handler.total;
+        }
+        Assert.assertEquals(expectedResult, result);
+
+        return opsPerSecond;
+    }
+
+    private static long validate(final long value)
+    {
+        long x = value + 1L;
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+        }
+
+        return x & 0xFFFFL;
+    }
+
+    private static final class ValidationHandler implements WorkHandler<ValueEntry>
+    {
+        private volatile long total;
+
+        public void onAvailable(final ValueEntry entry)
+        {
+            total += validate(entry.getValue());
+        }
+    }
+
+    private static final class BlockingRejectionHandler implements RejectedExecutionHandler
+    {
+        public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor)
+        {
+            try
+            {
+                executor.getQueue().put(task);
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.jamieallen.sdisruptor.EntryFactory;
 
 public final class FizzBuzzEntry extends AbstractEntry
 {
+    private long _sequence = -1L;
     private long value = 0;
     private boolean fizz = false;
     private boolean buzz = false;
@@ -61,6 +62,15 @@ public final class FizzBuzzEntry extends AbstractEntry
         this.buzz = buzz;
     }
 
+    public long _sequence()
+    {
+        return _sequence;
+    }
+
+    public void _sequence_$eq(long newValue)
+    {
+        _sequence = newValue;
+    }
 
     public final static EntryFactory<FizzBuzzEntry> ENTRY_FACTORY = new EntryFactory<FizzBuzzEntry>()
     {
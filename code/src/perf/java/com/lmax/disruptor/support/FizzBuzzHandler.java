@@ -38,7 +38,7 @@ public final class FizzBuzzHandler implements BatchHandler<FizzBuzzEntry>
     }
 
     @Override
-    public void onAvailable(final FizzBuzzEntry entry) throws Exception
+    public void onAvailable(final FizzBuzzEntry entry)
     {
         switch (fizzBuzzStep)
         {
@@ -60,7 +60,7 @@ public final class FizzBuzzHandler implements BatchHandler<FizzBuzzEntry>
     }
 
     @Override
-    public void onEndOfBatch() throws Exception
+    public void onEndOfBatch()
     {
     }
 }
@@ -20,6 +20,7 @@ import com.jamieallen.sdisruptor.EntryFactory;
 
 public final class FunctionEntry extends AbstractEntry
 {
+    private long _sequence = -1L;
     private long operandOne;
     private long operandTwo;
     private long stepOneResult;
@@ -65,6 +66,16 @@ public final class FunctionEntry extends AbstractEntry
         this.stepTwoResult = stepTwoResult;
     }
 
+    public long _sequence()
+    {
+        return _sequence;
+    }
+
+    public void _sequence_$eq(long newValue)
+    {
+        _sequence = newValue;
+    }
+
     public final static EntryFactory<FunctionEntry> ENTRY_FACTORY = new EntryFactory<FunctionEntry>()
     {
         public FunctionEntry create()
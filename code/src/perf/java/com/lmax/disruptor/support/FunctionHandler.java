@@ -38,7 +38,7 @@ public final class FunctionHandler implements BatchHandler<FunctionEntry>
     }
 
     @Override
-    public void onAvailable(final FunctionEntry entry) throws Exception
+    public void onAvailable(final FunctionEntry entry)
     {
         switch (functionStep)
         {
@@ -60,7 +60,7 @@ public final class FunctionHandler implements BatchHandler<FunctionEntry>
     }
 
     @Override
-    public void onEndOfBatch() throws Exception
+    public void onEndOfBatch()
     {
     }
 }
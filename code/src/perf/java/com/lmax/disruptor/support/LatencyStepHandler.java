@@ -32,7 +32,7 @@ public final class LatencyStepHandler implements BatchHandler<ValueEntry>
     }
 
     @Override
-    public void onAvailable(final ValueEntry entry) throws Exception
+    public void onAvailable(final ValueEntry entry)
     {
         switch (functionStep)
         {
@@ -50,7 +50,7 @@ public final class LatencyStepHandler implements BatchHandler<ValueEntry>
     }
 
     @Override
-    public void onEndOfBatch() throws Exception
+    public void onEndOfBatch()
     {
     }
 }
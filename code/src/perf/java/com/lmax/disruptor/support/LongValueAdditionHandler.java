@@ -0,0 +1,44 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.support;
+
+import com.jamieallen.sdisruptor.LongBatchHandler;
+
+public final class LongValueAdditionHandler implements LongBatchHandler
+{
+    private long value;
+
+    public long getValue()
+    {
+        return value;
+    }
+
+    public void reset()
+    {
+        value = 0L;
+    }
+
+    @Override
+    public void onAvailable(final long sequence, final long value)
+    {
+        this.value += value;
+    }
+
+    @Override
+    public void onEndOfBatch()
+    {
+    }
+}
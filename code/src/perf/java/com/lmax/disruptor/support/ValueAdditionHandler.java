@@ -32,13 +32,13 @@ public final class ValueAdditionHandler implements BatchHandler<ValueEntry>
     }
 
     @Override
-    public void onAvailable(final ValueEntry entry) throws Exception
+    public void onAvailable(final ValueEntry entry)
     {
         value += entry.getValue();
     }
 
     @Override
-    public void onEndOfBatch() throws Exception
+    public void onEndOfBatch()
     {
     }
 }
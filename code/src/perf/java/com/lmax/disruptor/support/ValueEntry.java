@@ -20,6 +20,7 @@ import com.jamieallen.sdisruptor.EntryFactory;
 
 public final class ValueEntry extends AbstractEntry
 {
+    private long _sequence = -1L;
     private long value;
 
     public long getValue()
@@ -32,6 +33,16 @@ public final class ValueEntry extends AbstractEntry
         this.value = value;
     }
 
+    public long _sequence()
+    {
+        return _sequence;
+    }
+
+    public void _sequence_$eq(long newValue)
+    {
+        _sequence = newValue;
+    }
+
     public final static EntryFactory<ValueEntry> ENTRY_FACTORY = new EntryFactory<ValueEntry>()
     {
         public ValueEntry create()
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.support;
+
+import com.jamieallen.sdisruptor.EntryFactory;
+import com.jamieallen.sdisruptor.FlyweightEntry;
+
+public final class ValueFlyweightEntry extends FlyweightEntry
+{
+    private static final int VALUE_OFFSET = 0;
+
+    public int size()
+    {
+        return 8;
+    }
+
+    public long getValue()
+    {
+        return getLong(VALUE_OFFSET);
+    }
+
+    public void setValue(final long value)
+    {
+        putLong(VALUE_OFFSET, value);
+    }
+
+    public final static EntryFactory<ValueFlyweightEntry> ENTRY_FACTORY = new EntryFactory<ValueFlyweightEntry>()
+    {
+        public ValueFlyweightEntry create()
+        {
+            return new ValueFlyweightEntry();
+        }
+    };
+}
@@ -38,13 +38,13 @@ public final class ValueMutationHandler implements BatchHandler<ValueEntry>
     }
 
     @Override
-    public void onAvailable(final ValueEntry entry) throws Exception
+    public void onAvailable(final ValueEntry entry)
     {
         value = operation.op(value, entry.getValue());
     }
 
     @Override
-    public void onEndOfBatch() throws Exception
+    public void onEndOfBatch()
     {
     }
 }
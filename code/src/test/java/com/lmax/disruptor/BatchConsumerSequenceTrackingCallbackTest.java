@@ -39,7 +39,7 @@ public class BatchConsumerSequenceTrackingCallbackTest
     public void shouldReportProgressByUpdatingSequenceViaCallback()
         throws Exception
     {
-        final RingBuffer<StubEntry> ringBuffer = new RingBuffer<StubEntry>(StubEntry.ENTRY_FACTORY, 16, null, null);
+        final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
         final ConsumerBarrier<StubEntry> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
         final SequenceTrackingHandler<StubEntry> handler = new TestSequenceTrackingHandler();
         final BatchConsumer<StubEntry> batchConsumer = new BatchConsumer<StubEntry>(consumerBarrier, handler);
@@ -45,7 +45,7 @@ public final class BatchConsumerTest
     private final Sequence lifecycleSequence = context.sequence("lifecycleSequence");
     private final CountDownLatch latch = new CountDownLatch(1);
 
-    private final RingBuffer<StubEntry> ringBuffer = new RingBuffer<StubEntry>(StubEntry.ENTRY_FACTORY, 16, null, null);
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
     private final ConsumerBarrier<StubEntry> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
     @SuppressWarnings("unchecked") private final BatchHandler<StubEntry> batchHandler = context.mock(BatchHandler.class);
     private final BatchConsumer batchConsumer = new BatchConsumer<StubEntry>(consumerBarrier, batchHandler);
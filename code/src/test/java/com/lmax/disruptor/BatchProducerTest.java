@@ -29,7 +29,7 @@ import com.lmax.disruptor.support.StubEntry;
 
 public final class BatchProducerTest
 {
-    private final RingBuffer<StubEntry> ringBuffer = new RingBuffer<StubEntry>(StubEntry.ENTRY_FACTORY, 20, null, null);
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 20, null, null);
     private final ConsumerBarrier<StubEntry> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
     {
     		final NoOpConsumer<StubEntry> noOpConsumer = new NoOpConsumer<StubEntry>(ringBuffer);
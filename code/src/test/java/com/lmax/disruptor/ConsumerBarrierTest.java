@@ -41,7 +41,7 @@ import com.lmax.disruptor.support.StubEntry;
 public final class ConsumerBarrierTest
 {
     private Mockery context = new Mockery();
-    private RingBuffer<StubEntry> ringBuffer = new RingBuffer<StubEntry>(StubEntry.ENTRY_FACTORY, 64, null, null);
+    private RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 64, null, null);
     private Consumer consumer1 = context.mock(Consumer.class, "consumer1");
     private Consumer consumer2 = context.mock(Consumer.class, "consumer2");
     private Consumer consumer3 = context.mock(Consumer.class, "consumer3");
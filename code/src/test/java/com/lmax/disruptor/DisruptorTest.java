@@ -0,0 +1,111 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.Disruptor;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.lmax.disruptor.support.DaemonThreadFactory;
+import com.lmax.disruptor.support.StubEntry;
+
+@SuppressWarnings("unchecked")
+public final class DisruptorTest
+{
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
+    private final Disruptor<StubEntry> disruptor = new Disruptor<StubEntry>(ringBuffer, new DaemonThreadFactory());
+
+    @Test
+    public void shouldGateRingOnEndOfEachChain()
+    {
+        final CountingHandler fizzHandler = new CountingHandler();
+        final CountingHandler buzzHandler = new CountingHandler();
+        final CountingHandler fizzBuzzHandler = new CountingHandler();
+        final CountingHandler journalHandler = new CountingHandler();
+
+        disruptor.handleEventsWith(fizzHandler, buzzHandler).then(fizzBuzzHandler);
+        disruptor.after(fizzHandler).then(journalHandler);
+
+        assertArrayEquals(new Consumer[] { disruptor.consumerFor(fizzBuzzHandler), disruptor.consumerFor(journalHandler) },
+                          disruptor.gatingConsumers());
+    }
+
+    @Test
+    public void shouldDrainEveryHandlerOnShutdownAndCarryOnWhenRestarted() throws Exception
+    {
+        final CountingHandler fizzHandler = new CountingHandler();
+        final CountingHandler buzzHandler = new CountingHandler();
+        final CountingHandler fizzBuzzHandler = new CountingHandler();
+        disruptor.handleEventsWith(fizzHandler).and(disruptor.handleEventsWith(buzzHandler)).then(fizzBuzzHandler);
+
+        disruptor.start();
+        publish(100);
+        disruptor.shutdown();
+
+        assertEquals(ringBuffer.cursor(), disruptor.consumerFor(fizzBuzzHandler).sequence());
+        assertEquals(100L, fizzBuzzHandler.count);
+
+        disruptor.start();
+        publish(100);
+        disruptor.shutdown();
+
+        assertEquals(200L, fizzHandler.count);
+        assertEquals(200L, buzzHandler.count);
+        assertEquals(200L, fizzBuzzHandler.count);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotSetUpHandlersOnceStarted()
+    {
+        disruptor.handleEventsWith(new CountingHandler());
+        disruptor.start();
+        try
+        {
+            disruptor.handleEventsWith(new CountingHandler());
+        }
+        finally
+        {
+            disruptor.halt();
+        }
+    }
+
+    private void publish(final int numEntries)
+    {
+        for (int i = 0; i < numEntries; i++)
+        {
+            ringBuffer.commit(ringBuffer.nextEntry());
+        }
+    }
+
+    private static final class CountingHandler implements BatchHandler<StubEntry>
+    {
+        private long count;
+
+        public void onAvailable(final StubEntry entry)
+        {
+            count++;
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
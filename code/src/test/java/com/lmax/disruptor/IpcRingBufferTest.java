@@ -0,0 +1,143 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.IpcRingBuffer;
+import com.jamieallen.sdisruptor.ProducerWaitStrategy;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.DaemonThreadFactory;
+import com.lmax.disruptor.support.ValueFlyweight;
+
+/**
+ * Each test maps the same file into two IpcRingBuffers, one standing in for the producer process
+ * and the other for the consumer process.
+ */
+public final class IpcRingBufferTest
+{
+    private final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
+    private File file;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        file = File.createTempFile("IpcRingBufferTest", ".ring");
+        file.deleteOnExit();
+    }
+
+    @Test
+    public void shouldGateProducerOnSequenceRecordedByConsumerProcess()
+    {
+        final IpcRingBuffer<ValueFlyweight> producerRing = newRingBuffer(WaitStrategy.Yielding());
+        final IpcRingBuffer<ValueFlyweight> consumerRing = newRingBuffer(WaitStrategy.Yielding());
+        final BatchConsumer<ValueFlyweight> batchConsumer =
+            new BatchConsumer<ValueFlyweight>(consumerRing.createConsumerBarrier(new Consumer[0]), new SummingHandler(0));
+        consumerRing.consumersToTrack_(new Consumer[] { batchConsumer });
+
+        for (int i = 0; i < producerRing.capacity(); i++)
+        {
+            producerRing.commit(producerRing.tryNextEntry());
+        }
+
+        assertNull(producerRing.tryNextEntry());
+        assertEquals(7L, consumerRing.cursor());
+
+        batchConsumer.sequence_(3L);
+
+        assertEquals(4L, producerRing.remainingCapacity());
+        assertNotNull(producerRing.tryNextEntry());
+    }
+
+    @Test
+    public void shouldDeliverEntriesInSequenceToConsumerProcess() throws Exception
+    {
+        final int numEntries = 1000;
+        final IpcRingBuffer<ValueFlyweight> producerRing = newRingBuffer(WaitStrategy.Yielding());
+        final IpcRingBuffer<ValueFlyweight> consumerRing = newRingBuffer(WaitStrategy.Yielding());
+        final SummingHandler handler = new SummingHandler(numEntries);
+        final BatchConsumer<ValueFlyweight> batchConsumer =
+            new BatchConsumer<ValueFlyweight>(consumerRing.createConsumerBarrier(new Consumer[0]), handler);
+        consumerRing.consumersToTrack_(new Consumer[] { batchConsumer });
+        EXECUTOR.submit(batchConsumer);
+
+        long expected = 0L;
+        for (long i = 0; i < numEntries; i++)
+        {
+            ValueFlyweight entry = producerRing.nextEntry();
+            entry.setValue(i);
+            producerRing.commit(entry);
+            expected += i;
+        }
+
+        handler.latch.await();
+        batchConsumer.halt();
+
+        assertEquals(expected, handler.sum);
+        assertFalse(handler.outOfSequence);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectBlockingWaitStrategy()
+    {
+        newRingBuffer(WaitStrategy.Blocking());
+    }
+
+    private IpcRingBuffer<ValueFlyweight> newRingBuffer(final String waitStrategyOption)
+    {
+        return new IpcRingBuffer<ValueFlyweight>(file, ValueFlyweight.ENTRY_FACTORY, 8, 1,
+                                                 WaitStrategy.newInstance(waitStrategyOption),
+                                                 ProducerWaitStrategy.newInstance(ProducerWaitStrategy.Yielding()));
+    }
+
+    private static final class SummingHandler implements BatchHandler<ValueFlyweight>
+    {
+        private final CountDownLatch latch;
+        private long sum;
+        private long expectedSequence;
+        private boolean outOfSequence;
+
+        private SummingHandler(final int expectedEntries)
+        {
+            latch = new CountDownLatch(expectedEntries);
+        }
+
+        public void onAvailable(final ValueFlyweight entry)
+        {
+            outOfSequence |= entry.sequence() != expectedSequence++;
+            sum += entry.getValue();
+            latch.countDown();
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
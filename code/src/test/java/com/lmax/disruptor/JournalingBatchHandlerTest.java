@@ -0,0 +1,145 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.EntryMarshaller;
+import com.jamieallen.sdisruptor.JournalReader;
+import com.jamieallen.sdisruptor.JournalingBatchHandler;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class JournalingBatchHandlerTest
+{
+    private static final int MAX_ENTRY_SIZE = 4;
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        file = File.createTempFile("JournalingBatchHandlerTest", ".journal");
+        file.deleteOnExit();
+    }
+
+    @Test
+    public void shouldReplayJournalledEntriesInOrder() throws Exception
+    {
+        journalNew(7, 11, 13);
+
+        RingBuffer<StubEntry> ringBuffer = newRingBuffer();
+        assertEquals(2L, newReader().replay(ringBuffer));
+
+        assertEquals(2L, ringBuffer.cursor());
+        assertEquals(7, ringBuffer.entry(0L).getValue());
+        assertEquals(11, ringBuffer.entry(1L).getValue());
+        assertEquals(13, ringBuffer.entry(2L).getValue());
+    }
+
+    @Test
+    public void shouldStopReplayAtTornRecordAndTruncateIt() throws Exception
+    {
+        journalNew(7, 11);
+        final long validLength = file.length();
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        randomAccessFile.seek(validLength);
+        randomAccessFile.writeInt(MAX_ENTRY_SIZE);
+        randomAccessFile.writeLong(2L);
+        randomAccessFile.close();
+
+        RingBuffer<StubEntry> ringBuffer = newRingBuffer();
+        assertEquals(1L, newReader().replay(ringBuffer));
+        assertEquals(validLength, file.length());
+    }
+
+    @Test
+    public void shouldNotJournalReplayedEntriesAgain() throws Exception
+    {
+        journalNew(7, 11);
+
+        RingBuffer<StubEntry> ringBuffer = newRingBuffer();
+        JournalingBatchHandler<StubEntry> handler = newHandler();
+        assertEquals(1L, handler.replay(ringBuffer));
+
+        handler.onStart();
+        handler.onAvailable(ringBuffer.entry(0L));
+        handler.onAvailable(ringBuffer.entry(1L));
+        journal(ringBuffer, handler, 13);
+
+        ringBuffer = newRingBuffer();
+        assertEquals(2L, newReader().replay(ringBuffer));
+        assertEquals(13, ringBuffer.entry(2L).getValue());
+    }
+
+    private void journalNew(final int... values) throws Exception
+    {
+        JournalingBatchHandler<StubEntry> handler = newHandler();
+        handler.onStart();
+        journal(newRingBuffer(), handler, values);
+    }
+
+    private void journal(final RingBuffer<StubEntry> ringBuffer, final JournalingBatchHandler<StubEntry> handler, final int... values)
+        throws Exception
+    {
+        for (int value : values)
+        {
+            StubEntry entry = ringBuffer.nextEntry();
+            entry.setValue(value);
+            ringBuffer.commit(entry);
+            handler.onAvailable(entry);
+        }
+
+        handler.onEndOfBatch();
+        handler.onShutdown();
+    }
+
+    private RingBuffer<StubEntry> newRingBuffer()
+    {
+        return RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
+    }
+
+    private JournalingBatchHandler<StubEntry> newHandler()
+    {
+        return new JournalingBatchHandler<StubEntry>(file, MARSHALLER, MAX_ENTRY_SIZE, 1024);
+    }
+
+    private JournalReader<StubEntry> newReader()
+    {
+        return new JournalReader<StubEntry>(file, MARSHALLER, MAX_ENTRY_SIZE);
+    }
+
+    private static final EntryMarshaller<StubEntry> MARSHALLER = new EntryMarshaller<StubEntry>()
+    {
+        public void marshal(final StubEntry entry, final ByteBuffer buffer)
+        {
+            buffer.putInt(entry.getValue());
+        }
+
+        public void unmarshal(final ByteBuffer buffer, final StubEntry entry)
+        {
+            entry.setValue(buffer.getInt());
+        }
+    };
+}
@@ -37,7 +37,7 @@ public final class LifecycleAwareTest
     private final CountDownLatch shutdownLatch = new CountDownLatch(1);
 
 
-    private final RingBuffer<StubEntry> ringBuffer = new RingBuffer<StubEntry>(StubEntry.ENTRY_FACTORY, 16, null, null);
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
     final TestConsumer consumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
     final TestConsumer[] consumers = new TestConsumer[] { consumer };
     private final ConsumerBarrier<StubEntry> consumerBarrier = ringBuffer.createConsumerBarrier(consumers);
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.LongBatchConsumer;
+import com.jamieallen.sdisruptor.LongBatchHandler;
+import com.jamieallen.sdisruptor.LongConsumerBarrier;
+import com.jamieallen.sdisruptor.LongRingBuffer;
+import com.jamieallen.sdisruptor.ProducerWaitStrategy;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.DaemonThreadFactory;
+
+public final class LongRingBufferTest
+{
+    private final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
+    private final LongRingBuffer ringBuffer = new LongRingBuffer(8,
+                                                                 WaitStrategy.newInstance(WaitStrategy.Blocking()),
+                                                                 ProducerWaitStrategy.newInstance(ProducerWaitStrategy.Yielding()));
+    private final LongConsumerBarrier consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
+
+    @Test
+    public void shouldPublishAndGet() throws Exception
+    {
+        assertEquals(-1L, ringBuffer.cursor());
+
+        long sequence = ringBuffer.next();
+        ringBuffer.set(sequence, 2701L);
+        ringBuffer.commit(sequence);
+        ringBuffer.publish(1234L);
+
+        assertEquals(1L, consumerBarrier.waitFor(0L));
+        assertEquals(2701L, consumerBarrier.getValue(0L));
+        assertEquals(1234L, ringBuffer.value(1L));
+    }
+
+    @Test
+    public void shouldGetWithTimeout() throws Exception
+    {
+        assertEquals(-1L, consumerBarrier.waitFor(0L, 5, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldNotPublishPastSlowestConsumer() throws Exception
+    {
+        final LongBatchConsumer batchConsumer = new LongBatchConsumer(consumerBarrier, new SummingHandler(0));
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+
+        for (int i = 0; i < ringBuffer.capacity(); i++)
+        {
+            assertTrue(ringBuffer.tryPublish(i));
+        }
+
+        assertEquals(0L, ringBuffer.remainingCapacity());
+        assertFalse(ringBuffer.tryPublish(8L));
+        assertEquals(7L, ringBuffer.cursor());
+    }
+
+    @Test
+    public void shouldGateOnConsumerTrackedAfterPublishingWithoutConsumers() throws Exception
+    {
+        for (int i = 0; i <= ringBuffer.capacity(); i++)
+        {
+            assertTrue(ringBuffer.tryPublish(i));
+        }
+
+        final LongBatchConsumer batchConsumer = new LongBatchConsumer(consumerBarrier, new SummingHandler(0));
+        batchConsumer.sequence_(ringBuffer.cursor());
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+
+        for (int i = 0; i < ringBuffer.capacity(); i++)
+        {
+            assertTrue(ringBuffer.tryPublish(i));
+        }
+
+        assertFalse(ringBuffer.tryPublish(8L));
+        assertEquals(16L, ringBuffer.cursor());
+    }
+
+    @Test
+    public void shouldDeliverValuesInSequenceToHandler() throws Exception
+    {
+        final int numValues = 1000;
+        final SummingHandler handler = new SummingHandler(numValues);
+        final LongBatchConsumer batchConsumer = new LongBatchConsumer(consumerBarrier, handler);
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+        EXECUTOR.submit(batchConsumer);
+
+        long expected = 0L;
+        for (long i = 0; i < numValues; i++)
+        {
+            ringBuffer.publish(i);
+            expected += i;
+        }
+
+        handler.latch.await();
+        batchConsumer.halt();
+
+        assertEquals(expected, handler.sum);
+        assertFalse(handler.outOfSequence);
+    }
+
+    private static final class SummingHandler implements LongBatchHandler
+    {
+        private final CountDownLatch latch;
+        private long sum;
+        private long expectedSequence;
+        private boolean outOfSequence;
+
+        private SummingHandler(final int expectedValues)
+        {
+            latch = new CountDownLatch(expectedValues);
+        }
+
+        public void onAvailable(final long sequence, final long value)
+        {
+            outOfSequence |= sequence != expectedSequence++;
+            sum += value;
+            latch.countDown();
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.MappedRingBuffer;
+import com.jamieallen.sdisruptor.ProducerWaitStrategy;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.ValueFlyweight;
+
+public final class MappedRingBufferTest
+{
+    private File file;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        file = File.createTempFile("MappedRingBufferTest", ".ring");
+        file.deleteOnExit();
+    }
+
+    @Test
+    public void shouldStartEmptyWhenFileIsNew()
+    {
+        MappedRingBuffer<ValueFlyweight> ringBuffer = newRingBuffer(8);
+
+        assertEquals(-1L, ringBuffer.cursor());
+        assertEquals(-1L, ringBuffer.recoveredSequence(0));
+        assertEquals(0L, ringBuffer.nextEntry().sequence());
+    }
+
+    @Test
+    public void shouldResumeFromCommittedCursorAndRecordedConsumerSequenceAfterRestart() throws Exception
+    {
+        MappedRingBuffer<ValueFlyweight> ringBuffer = newRingBuffer(8);
+        ConsumerBarrier<ValueFlyweight> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
+        BatchConsumer<ValueFlyweight> batchConsumer = new BatchConsumer<ValueFlyweight>(consumerBarrier, new NoOpHandler());
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+
+        for (long i = 0; i < 5; i++)
+        {
+            ValueFlyweight entry = ringBuffer.nextEntry();
+            entry.setValue(i + 10L);
+            ringBuffer.commit(entry);
+        }
+        batchConsumer.sequence_(2L);
+        ringBuffer.force();
+
+        MappedRingBuffer<ValueFlyweight> restarted = newRingBuffer(8);
+        ConsumerBarrier<ValueFlyweight> restartedBarrier = restarted.createConsumerBarrier(new Consumer[0]);
+
+        assertEquals(4L, restarted.cursor());
+        assertEquals(2L, restarted.recoveredSequence(0));
+        assertEquals(4L, restartedBarrier.waitFor(3L));
+        assertEquals(13L, restartedBarrier.getEntry(3L).getValue());
+        assertEquals(14L, restartedBarrier.getEntry(4L).getValue());
+        assertEquals(5L, restarted.nextEntry().sequence());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectFileHoldingRingOfDifferentSize()
+    {
+        newRingBuffer(8);
+        newRingBuffer(16);
+    }
+
+    private MappedRingBuffer<ValueFlyweight> newRingBuffer(final int size)
+    {
+        return new MappedRingBuffer<ValueFlyweight>(file, ValueFlyweight.ENTRY_FACTORY, size, 1,
+                                                    WaitStrategy.newInstance(WaitStrategy.Blocking()),
+                                                    ProducerWaitStrategy.newInstance(ProducerWaitStrategy.Yielding()));
+    }
+
+    private static final class NoOpHandler implements BatchHandler<ValueFlyweight>
+    {
+        public void onAvailable(final ValueFlyweight entry)
+        {
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
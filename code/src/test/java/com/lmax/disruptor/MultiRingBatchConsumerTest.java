@@ -0,0 +1,211 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.MultiRingBatchConsumer;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class MultiRingBatchConsumerTest
+{
+    private final WaitStrategy waitStrategy = WaitStrategy.newInstance(WaitStrategy.Blocking());
+    private final RingBuffer<StubEntry> orderRing = newRingBuffer(waitStrategy);
+    private final RingBuffer<StubEntry> adminRing = newRingBuffer(waitStrategy);
+    private final RecordingHandler orderHandler = new RecordingHandler();
+    private final RecordingHandler adminHandler = new RecordingHandler();
+
+    @Test
+    public void shouldConsumeFromEachRingOnOneThread() throws Exception
+    {
+        final MultiRingBatchConsumer multiRingConsumer = newConsumer(MultiRingBatchConsumer.Fair());
+        final Thread thread = new Thread(multiRingConsumer);
+        thread.start();
+
+        for (int i = 0; i < 10; i++)
+        {
+            publish(orderRing, i);
+            publish(adminRing, 100 + i);
+        }
+        waitForConsumer(multiRingConsumer);
+        multiRingConsumer.halt();
+        thread.join();
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), orderHandler.values);
+        assertEquals(Arrays.asList(100, 101, 102, 103, 104, 105, 106, 107, 108, 109), adminHandler.values);
+        assertEquals(9L, multiRingConsumer.consumer(0).sequence());
+        assertEquals(9L, multiRingConsumer.consumer(1).sequence());
+    }
+
+    @Test
+    public void shouldServeEarlierRingsFirstWithPriority() throws Exception
+    {
+        final List<Integer> values = new ArrayList<Integer>();
+        orderHandler.values = values;
+        adminHandler.values = values;
+        for (int i = 0; i < 3; i++)
+        {
+            publish(adminRing, 100 + i);
+            publish(orderRing, i);
+        }
+
+        final MultiRingBatchConsumer multiRingConsumer = newConsumer(MultiRingBatchConsumer.Priority());
+        final Thread thread = new Thread(multiRingConsumer);
+        thread.start();
+        waitForConsumer(multiRingConsumer);
+        multiRingConsumer.halt();
+        thread.join();
+
+        assertEquals(Arrays.asList(0, 1, 2, 100, 101, 102), values);
+    }
+
+    @Test
+    public void shouldConsumeFromBarrierOnceUpstreamConsumerHasAdvanced() throws Exception
+    {
+        assertConsumesFromBarrierOnceUpstreamConsumerHasAdvanced(WaitStrategy.Yielding());
+    }
+
+    @Test
+    public void shouldWakeBlockingWaitOnceUpstreamConsumerHasAdvanced() throws Exception
+    {
+        assertConsumesFromBarrierOnceUpstreamConsumerHasAdvanced(WaitStrategy.Blocking());
+    }
+
+    @Test
+    public void shouldWakeLiteBlockingWaitOnceUpstreamConsumerHasAdvanced() throws Exception
+    {
+        assertConsumesFromBarrierOnceUpstreamConsumerHasAdvanced(WaitStrategy.LiteBlocking());
+    }
+
+    private void assertConsumesFromBarrierOnceUpstreamConsumerHasAdvanced(final String waitStrategyOption) throws Exception
+    {
+        final WaitStrategy waitStrategy = WaitStrategy.newInstance(waitStrategyOption);
+        final RingBuffer<StubEntry> orderRing = newRingBuffer(waitStrategy);
+        final RingBuffer<StubEntry> adminRing = newRingBuffer(waitStrategy);
+        final BatchConsumer<StubEntry> upstreamConsumer =
+            new BatchConsumer<StubEntry>(orderRing.createConsumerBarrier(new Consumer[0]), new SlowHandler());
+        final MultiRingBatchConsumer multiRingConsumer =
+            new MultiRingBatchConsumer(new ConsumerBarrier[] { orderRing.createConsumerBarrier(new Consumer[] { upstreamConsumer }),
+                                                               adminRing.createConsumerBarrier(new Consumer[0]) },
+                                       new BatchHandler[] { orderHandler, adminHandler },
+                                       waitStrategy, MultiRingBatchConsumer.Fair());
+        orderRing.consumersToTrack_(new Consumer[] { multiRingConsumer.consumer(0) });
+        adminRing.consumersToTrack_(new Consumer[] { multiRingConsumer.consumer(1) });
+
+        final Thread upstreamThread = new Thread(upstreamConsumer);
+        final Thread thread = new Thread(multiRingConsumer);
+        upstreamThread.start();
+        thread.start();
+
+        publish(orderRing, 7);
+        final long timeout = System.currentTimeMillis() + 1000L;
+        while (multiRingConsumer.consumer(0).sequence() < 0L && System.currentTimeMillis() < timeout)
+        {
+            Thread.yield();
+        }
+        multiRingConsumer.halt();
+        upstreamConsumer.halt();
+        thread.join();
+        upstreamThread.join();
+
+        assertEquals(Arrays.asList(7), orderHandler.values);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownSelectOption()
+    {
+        newConsumer("random");
+    }
+
+    private static RingBuffer<StubEntry> newRingBuffer(final WaitStrategy waitStrategy)
+    {
+        return RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(16).waitStrategy(waitStrategy).singleProducer();
+    }
+
+    private MultiRingBatchConsumer newConsumer(final String selectOption)
+    {
+        final MultiRingBatchConsumer multiRingConsumer =
+            new MultiRingBatchConsumer(new ConsumerBarrier[] { orderRing.createConsumerBarrier(new Consumer[0]),
+                                                               adminRing.createConsumerBarrier(new Consumer[0]) },
+                                       new BatchHandler[] { orderHandler, adminHandler },
+                                       waitStrategy, selectOption);
+        orderRing.consumersToTrack_(new Consumer[] { multiRingConsumer.consumer(0) });
+        adminRing.consumersToTrack_(new Consumer[] { multiRingConsumer.consumer(1) });
+
+        return multiRingConsumer;
+    }
+
+    private static void publish(final RingBuffer<StubEntry> ringBuffer, final int value)
+    {
+        StubEntry entry = ringBuffer.nextEntry();
+        entry.setValue(value);
+        ringBuffer.commit(entry);
+    }
+
+    private void waitForConsumer(final MultiRingBatchConsumer multiRingConsumer)
+    {
+        while (multiRingConsumer.consumer(0).sequence() < orderRing.cursor() ||
+               multiRingConsumer.consumer(1).sequence() < adminRing.cursor())
+        {
+            Thread.yield();
+        }
+    }
+
+    private static final class SlowHandler implements BatchHandler<StubEntry>
+    {
+        public void onAvailable(final StubEntry entry)
+        {
+            try
+            {
+                Thread.sleep(50L);
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+
+    private static final class RecordingHandler implements BatchHandler<StubEntry>
+    {
+        private List<Integer> values = new ArrayList<Integer>();
+
+        public void onAvailable(final StubEntry entry)
+        {
+            values.add(Integer.valueOf(entry.getValue()));
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
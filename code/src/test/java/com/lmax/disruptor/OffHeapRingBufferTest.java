@@ -0,0 +1,178 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.ConsumerBarrier;
+import com.jamieallen.sdisruptor.OffHeapRingBuffer;
+import com.jamieallen.sdisruptor.ProducerWaitStrategy;
+import com.jamieallen.sdisruptor.SequenceBatch;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.DaemonThreadFactory;
+import com.lmax.disruptor.support.ValueFlyweight;
+
+public final class OffHeapRingBufferTest
+{
+    private final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
+    private final OffHeapRingBuffer<ValueFlyweight> ringBuffer =
+        new OffHeapRingBuffer<ValueFlyweight>(ValueFlyweight.ENTRY_FACTORY, 8,
+                                              WaitStrategy.newInstance(WaitStrategy.Blocking()),
+                                              ProducerWaitStrategy.newInstance(ProducerWaitStrategy.Yielding()));
+    private final ConsumerBarrier<ValueFlyweight> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
+
+    @Test
+    public void shouldClaimAndGet() throws Exception
+    {
+        assertEquals(-1L, ringBuffer.cursor());
+
+        ValueFlyweight entry = ringBuffer.nextEntry();
+        entry.setValue(2701L);
+        entry.setFlag(7);
+        ringBuffer.commit(entry);
+
+        assertEquals(0L, consumerBarrier.waitFor(0L));
+
+        ValueFlyweight result = consumerBarrier.getEntry(0L);
+        assertEquals(0L, result.sequence());
+        assertEquals(2701L, result.getValue());
+        assertEquals(7, result.getFlag());
+    }
+
+    @Test
+    public void shouldPadSlotsToWholeCacheLines()
+    {
+        assertEquals(OffHeapRingBuffer.CacheLineSize(), ringBuffer.slotSize());
+        assertEquals(8 * OffHeapRingBuffer.CacheLineSize(), ringBuffer.buffer().capacity());
+    }
+
+    @Test
+    public void shouldClaimAndGetBatch() throws Exception
+    {
+        SequenceBatch sequenceBatch = ringBuffer.nextEntries(new SequenceBatch(5));
+        for (long i = sequenceBatch.getStart(); i <= sequenceBatch.end(); i++)
+        {
+            ringBuffer.entry(i).setValue(i * 10L);
+        }
+        ringBuffer.commit(sequenceBatch);
+
+        assertEquals(4L, consumerBarrier.waitFor(0L));
+        for (long i = 0; i < 5; i++)
+        {
+            assertEquals(i * 10L, consumerBarrier.getEntry(i).getValue());
+        }
+    }
+
+    @Test
+    public void shouldNotClaimPastSlowestConsumer() throws Exception
+    {
+        final BatchConsumer<ValueFlyweight> batchConsumer =
+            new BatchConsumer<ValueFlyweight>(consumerBarrier, new SummingHandler(0));
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+
+        for (int i = 0; i < ringBuffer.capacity(); i++)
+        {
+            ringBuffer.commit(ringBuffer.tryNextEntry());
+        }
+
+        assertEquals(0L, ringBuffer.remainingCapacity());
+        assertNull(ringBuffer.tryNextEntry());
+        assertNull(ringBuffer.tryNextEntries(new SequenceBatch(1)));
+        assertEquals(7L, ringBuffer.cursor());
+    }
+
+    @Test
+    public void shouldGateOnConsumerTrackedAfterClaimingWithoutConsumers() throws Exception
+    {
+        for (int i = 0; i <= ringBuffer.capacity(); i++)
+        {
+            ringBuffer.commit(ringBuffer.tryNextEntry());
+        }
+
+        final BatchConsumer<ValueFlyweight> batchConsumer =
+            new BatchConsumer<ValueFlyweight>(consumerBarrier, new SummingHandler(0));
+        batchConsumer.sequence_(ringBuffer.cursor());
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+
+        for (int i = 0; i < ringBuffer.capacity(); i++)
+        {
+            ringBuffer.commit(ringBuffer.tryNextEntry());
+        }
+
+        assertNull(ringBuffer.tryNextEntry());
+        assertEquals(16L, ringBuffer.cursor());
+    }
+
+    @Test
+    public void shouldDeliverEntriesInSequenceToHandler() throws Exception
+    {
+        final int numEntries = 1000;
+        final SummingHandler handler = new SummingHandler(numEntries);
+        final BatchConsumer<ValueFlyweight> batchConsumer = new BatchConsumer<ValueFlyweight>(consumerBarrier, handler);
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+        EXECUTOR.submit(batchConsumer);
+
+        long expected = 0L;
+        for (long i = 0; i < numEntries; i++)
+        {
+            ValueFlyweight entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+            expected += i;
+        }
+
+        handler.latch.await();
+        batchConsumer.halt();
+
+        assertEquals(expected, handler.sum);
+        assertFalse(handler.outOfSequence);
+    }
+
+    private static final class SummingHandler implements BatchHandler<ValueFlyweight>
+    {
+        private final CountDownLatch latch;
+        private long sum;
+        private long expectedSequence;
+        private boolean outOfSequence;
+
+        private SummingHandler(final int expectedEntries)
+        {
+            latch = new CountDownLatch(expectedEntries);
+        }
+
+        public void onAvailable(final ValueFlyweight entry)
+        {
+            outOfSequence |= entry.sequence() != expectedSequence++;
+            sum += entry.getValue();
+            latch.countDown();
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.OrderedParallelStage;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.lmax.disruptor.support.DaemonThreadFactory;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class OrderedParallelStageTest
+{
+    private static final int WORKERS = 3;
+
+    private final ExecutorService EXECUTOR = Executors.newFixedThreadPool(WORKERS + 1, new DaemonThreadFactory());
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldOnlyLetDependentConsumerSeeCompletedEntriesInOrder() throws Exception
+    {
+        final int numEntries = 1000;
+        final BatchHandler<StubEntry>[] handlers = new BatchHandler[WORKERS];
+        for (int i = 0; i < WORKERS; i++)
+        {
+            handlers[i] = new CompletingHandler(i * 20);
+        }
+
+        final OrderedParallelStage<StubEntry> stage =
+            new OrderedParallelStage<StubEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), handlers);
+        final OrderCheckingHandler orderCheckingHandler = new OrderCheckingHandler();
+        final BatchConsumer<StubEntry> dependentConsumer =
+            new BatchConsumer<StubEntry>(ringBuffer.createConsumerBarrier(new Consumer[] { stage.consumer() }), orderCheckingHandler);
+        ringBuffer.consumersToTrack_(new Consumer[] { dependentConsumer });
+
+        stage.start(EXECUTOR);
+        EXECUTOR.execute(dependentConsumer);
+
+        for (int i = 0; i < numEntries; i++)
+        {
+            StubEntry entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            entry.setTestString(null);
+            ringBuffer.commit(entry);
+        }
+        while (dependentConsumer.sequence() < ringBuffer.cursor())
+        {
+            Thread.yield();
+        }
+        dependentConsumer.halt();
+        stage.halt();
+
+        assertEquals(numEntries, orderCheckingHandler.count);
+        assertTrue(orderCheckingHandler.inOrderAndCompleted);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldHoldBackSequenceUntilEarliestEntryCompleted() throws Exception
+    {
+        final BlockingHandler blockingHandler = new BlockingHandler();
+        final OrderedParallelStage<StubEntry> stage = new OrderedParallelStage<StubEntry>(
+            ringBuffer.createConsumerBarrier(new Consumer[0]),
+            new BatchHandler[] { blockingHandler, new CompletingHandler(0), new CompletingHandler(0) });
+        ringBuffer.consumersToTrack_(new Consumer[] { stage.consumer() });
+        stage.start(EXECUTOR);
+
+        for (int i = 0; i < 9; i++)
+        {
+            StubEntry entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+        }
+        while (!blockingHandler.handling)
+        {
+            Thread.yield();
+        }
+        Thread.sleep(50);
+
+        assertEquals(-1L, stage.sequence());
+
+        blockingHandler.release = true;
+        while (stage.sequence() < ringBuffer.cursor())
+        {
+            Thread.yield();
+        }
+        stage.halt();
+    }
+
+    private static final class CompletingHandler implements BatchHandler<StubEntry>
+    {
+        private final int spins;
+
+        private CompletingHandler(final int spins)
+        {
+            this.spins = spins;
+        }
+
+        public void onAvailable(final StubEntry entry)
+        {
+            for (int i = 0; i < spins; i++)
+            {
+                Thread.yield();
+            }
+            entry.setTestString("completed-" + entry.getValue());
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+
+    private static final class OrderCheckingHandler implements BatchHandler<StubEntry>
+    {
+        private int count;
+        private boolean inOrderAndCompleted = true;
+
+        public void onAvailable(final StubEntry entry)
+        {
+            inOrderAndCompleted &= entry.getValue() == count && ("completed-" + count).equals(entry.getTestString());
+            count++;
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+
+    private static final class BlockingHandler implements BatchHandler<StubEntry>
+    {
+        private volatile boolean handling;
+        private volatile boolean release;
+
+        public void onAvailable(final StubEntry entry)
+        {
+            handling = true;
+            while (!release)
+            {
+                Thread.yield();
+            }
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.PartitionKey;
+import com.jamieallen.sdisruptor.PartitionedConsumerGroup;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.lmax.disruptor.support.DaemonThreadFactory;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class PartitionedConsumerGroupTest
+{
+    private static final int PARTITIONS = 3;
+    private static final int KEYS = 7;
+
+    private static final PartitionKey<StubEntry> KEY = new PartitionKey<StubEntry>()
+    {
+        public int hash(final StubEntry entry)
+        {
+            return entry.getValue() % KEYS;
+        }
+    };
+
+    private final ExecutorService EXECUTOR = Executors.newFixedThreadPool(PARTITIONS, new DaemonThreadFactory());
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldHandleEachKeyInOrderOnOnePartition() throws Exception
+    {
+        final int numEntries = 1000;
+        final RecordingHandler[] handlers = new RecordingHandler[PARTITIONS];
+        for (int i = 0; i < PARTITIONS; i++)
+        {
+            handlers[i] = new RecordingHandler();
+        }
+
+        final PartitionedConsumerGroup<StubEntry> group = newGroup(handlers);
+        group.start(EXECUTOR);
+
+        for (int i = 0; i < numEntries; i++)
+        {
+            StubEntry entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+        }
+        while (group.sequence() < ringBuffer.cursor())
+        {
+            Thread.yield();
+        }
+        group.halt();
+
+        int total = 0;
+        for (int partition = 0; partition < PARTITIONS; partition++)
+        {
+            final List<Integer> values = handlers[partition].values;
+            total += values.size();
+            for (int i = 0; i < values.size(); i++)
+            {
+                assertEquals(partition, (values.get(i).intValue() % KEYS) % PARTITIONS);
+                assertTrue(i == 0 || values.get(i - 1).intValue() < values.get(i).intValue());
+            }
+        }
+        assertEquals(numEntries, total);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldGateOnSlowestPartition() throws Exception
+    {
+        final BlockingHandler blockingHandler = new BlockingHandler();
+        final PartitionedConsumerGroup<StubEntry> group =
+            newGroup(new BatchHandler[] { blockingHandler, new RecordingHandler(), new RecordingHandler() });
+        group.start(EXECUTOR);
+
+        StubEntry entry = ringBuffer.nextEntry();
+        entry.setValue(0);
+        ringBuffer.commit(entry);
+        while (!blockingHandler.handling)
+        {
+            Thread.yield();
+        }
+
+        for (int i = 0; i < ringBuffer.capacity(); i++)
+        {
+            entry = ringBuffer.tryNextEntry();
+            if (entry == null)
+            {
+                break;
+            }
+            entry.setValue(1);
+            ringBuffer.commit(entry);
+        }
+
+        assertEquals(ringBuffer.capacity() - 1, ringBuffer.cursor());
+        assertEquals(-1L, group.sequence());
+        assertEquals(0L, ringBuffer.remainingCapacity());
+
+        blockingHandler.release = true;
+        while (group.sequence() < ringBuffer.cursor())
+        {
+            Thread.yield();
+        }
+        group.halt();
+    }
+
+    private PartitionedConsumerGroup<StubEntry> newGroup(final BatchHandler<StubEntry>[] handlers)
+    {
+        final PartitionedConsumerGroup<StubEntry> group =
+            new PartitionedConsumerGroup<StubEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), KEY, handlers);
+        ringBuffer.consumersToTrack_(group.consumers());
+
+        return group;
+    }
+
+    private static final class RecordingHandler implements BatchHandler<StubEntry>
+    {
+        private final List<Integer> values = new ArrayList<Integer>();
+
+        public void onAvailable(final StubEntry entry)
+        {
+            values.add(Integer.valueOf(entry.getValue()));
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+
+    private static final class BlockingHandler implements BatchHandler<StubEntry>
+    {
+        private volatile boolean handling;
+        private volatile boolean release;
+
+        public void onAvailable(final StubEntry entry)
+        {
+            handling = true;
+            while (!release)
+            {
+                Thread.yield();
+            }
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.MultiRingBatchConsumer;
+import com.jamieallen.sdisruptor.PriorityLanes;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.WaitStrategy;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class PriorityLanesTest
+{
+    private final WaitStrategy waitStrategy = WaitStrategy.newInstance(WaitStrategy.Yielding());
+    private final RecordingHandler handler = new RecordingHandler();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldDrainHigherLaneFirst() throws Exception
+    {
+        final PriorityLanes<StubEntry> lanes =
+            new PriorityLanes<StubEntry>(new RingBuffer[] { newRingBuffer(), newRingBuffer() }, handler,
+                                         MultiRingBatchConsumer.Priority());
+        publish(lanes.lane(1), 100, 5);
+        publish(lanes.lane(0), 0, 2);
+
+        assertEquals(2L, lanes.backlog(0));
+        assertEquals(5L, lanes.backlog(1));
+
+        runUntilDrained(lanes);
+
+        assertEquals(Arrays.asList(0, 1, 100, 101, 102, 103, 104), handler.values);
+        assertEquals(0L, lanes.backlog(0));
+        assertEquals(0L, lanes.backlog(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldShareByWeight() throws Exception
+    {
+        final PriorityLanes<StubEntry> lanes =
+            new PriorityLanes<StubEntry>(new RingBuffer[] { newRingBuffer(), newRingBuffer() }, handler,
+                                         MultiRingBatchConsumer.Weighted());
+        lanes.weights_(new int[] { 2, 1 });
+        publish(lanes.lane(0), 0, 4);
+        publish(lanes.lane(1), 100, 4);
+
+        runUntilDrained(lanes);
+
+        assertEquals(Arrays.asList(0, 1, 100, 2, 3, 101, 102, 103), handler.values);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldCheckHigherLaneBetweenBatchesOfLowerLane() throws Exception
+    {
+        final RingBuffer<StubEntry> highLane = newRingBuffer(waitStrategy, 64);
+        final RingBuffer<StubEntry> lowLane = newRingBuffer(waitStrategy, 64);
+        final PriorityLanes<StubEntry> lanes =
+            new PriorityLanes<StubEntry>(new RingBuffer[] { highLane, lowLane }, handler, MultiRingBatchConsumer.Priority());
+        publish(lowLane, 100, 40);
+        handler.publishOnValue(100, highLane);
+
+        runUntilDrained(lanes);
+
+        final int batchSize = MultiRingBatchConsumer.PriorityBatchSize();
+        assertEquals(41, handler.values.size());
+        assertEquals(Integer.valueOf(99 + batchSize), handler.values.get(batchSize - 1));
+        assertEquals(Integer.valueOf(0), handler.values.get(batchSize));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressWarnings("unchecked")
+    public void shouldRejectLanesNotSharingBlockingWaitStrategy()
+    {
+        new PriorityLanes<StubEntry>(new RingBuffer[] { newRingBuffer(WaitStrategy.newInstance(WaitStrategy.Blocking()), 16),
+                                                        newRingBuffer(WaitStrategy.newInstance(WaitStrategy.Blocking()), 16) },
+                                     handler, MultiRingBatchConsumer.Priority());
+    }
+
+    private RingBuffer<StubEntry> newRingBuffer()
+    {
+        return newRingBuffer(waitStrategy, 16);
+    }
+
+    private static RingBuffer<StubEntry> newRingBuffer(final WaitStrategy waitStrategy, final int size)
+    {
+        return RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(size).waitStrategy(waitStrategy).singleProducer();
+    }
+
+    private static void publish(final RingBuffer<StubEntry> ringBuffer, final int firstValue, final int numEntries)
+    {
+        for (int i = 0; i < numEntries; i++)
+        {
+            StubEntry entry = ringBuffer.nextEntry();
+            entry.setValue(firstValue + i);
+            ringBuffer.commit(entry);
+        }
+    }
+
+    private static void runUntilDrained(final PriorityLanes<StubEntry> lanes) throws Exception
+    {
+        final Thread thread = new Thread(lanes);
+        thread.start();
+        while (lanes.backlog(0) > 0L || lanes.backlog(1) > 0L)
+        {
+            Thread.yield();
+        }
+        lanes.halt();
+        thread.join();
+    }
+
+    private static final class RecordingHandler implements BatchHandler<StubEntry>
+    {
+        private final List<Integer> values = new ArrayList<Integer>();
+        private int publishValue = -1;
+        private RingBuffer<StubEntry> publishLane;
+
+        public void publishOnValue(final int value, final RingBuffer<StubEntry> lane)
+        {
+            publishValue = value;
+            publishLane = lane;
+        }
+
+        public void onAvailable(final StubEntry entry)
+        {
+            values.add(Integer.valueOf(entry.getValue()));
+            if (entry.getValue() == publishValue)
+            {
+                publish(publishLane, 0, 1);
+            }
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
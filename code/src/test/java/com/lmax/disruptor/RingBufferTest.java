@@ -23,6 +23,7 @@ import static org.junit.Assert.assertThat;
 
 import java.util.List;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
@@ -33,10 +34,18 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
 
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.ClaimStrategy;
 import com.jamieallen.sdisruptor.Consumer;
 import com.jamieallen.sdisruptor.ConsumerBarrier;
 import com.jamieallen.sdisruptor.NoOpConsumer;
+import com.jamieallen.sdisruptor.MultiProducerRingBuffer;
+import com.jamieallen.sdisruptor.ProducerWaitStrategy;
 import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.SequenceBatch;
+import com.jamieallen.sdisruptor.SingleProducerRingBuffer;
+import com.jamieallen.sdisruptor.WaitStrategy;
 import com.jamieallen.sdisruptor.support.TestConsumer;
 import com.lmax.disruptor.support.DaemonThreadFactory;
 import com.lmax.disruptor.support.StubEntry;
@@ -45,7 +54,7 @@ import com.lmax.disruptor.support.TestWaiter;
 public class RingBufferTest
 {
     private final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
-    private final RingBuffer<StubEntry> ringBuffer = new RingBuffer<StubEntry>(StubEntry.ENTRY_FACTORY, 20, (String)null, (String)null);
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 20, null, null);
     private final ConsumerBarrier<StubEntry> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
     {
   			final NoOpConsumer<StubEntry> noOpConsumer = new NoOpConsumer<StubEntry>(ringBuffer);
@@ -115,6 +124,90 @@ public class RingBufferTest
         assertEquals(expectedEntry, messages.get().get(0));
     }
 
+    @Test
+    public void shouldWakeConsumerWaitingWithLiteBlockingStrategy() throws Exception
+    {
+        assertConsumerWokenOnCommit(WaitStrategy.LiteBlocking());
+    }
+
+    @Test
+    public void shouldWakeConsumerBlockedAfterBackingOffWithPhasedBackoffStrategy() throws Exception
+    {
+        assertConsumerWokenOnCommit(WaitStrategy.PhasedBackoff());
+    }
+
+    @Test
+    public void shouldWakeConsumerWaitingWithAdaptiveStrategy() throws Exception
+    {
+        assertConsumerWokenOnCommit(WaitStrategy.Adaptive());
+    }
+
+    @Test
+    public void shouldCountWaitsAndAverageThemPerBarrierWithAdaptiveStrategy() throws Exception
+    {
+        final WaitStrategy.AdaptiveStrategy waitStrategy = new WaitStrategy.AdaptiveStrategy(10L, 100L, TimeUnit.MICROSECONDS);
+        final RingBuffer<StubEntry> ringBuffer =
+            RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(4).waitStrategy(waitStrategy).singleProducer();
+        final ConsumerBarrier<StubEntry> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
+
+        assertEquals(-1L, consumerBarrier.waitFor(0L, 5L, TimeUnit.MILLISECONDS));
+        assertEquals(1L, waitStrategy.blockCount());
+        assertTrue(waitStrategy.averageWait(consumerBarrier) > 0L);
+        assertEquals(0L, waitStrategy.averageWait(ringBuffer.createConsumerBarrier(new Consumer[0])));
+
+        ringBuffer.commit(ringBuffer.nextEntry());
+        assertEquals(0L, consumerBarrier.waitFor(0L));
+        assertEquals(0L, waitStrategy.spinCount() + waitStrategy.yieldCount());
+    }
+
+    @Test
+    public void shouldWakeConsumerWaitingWithTargetedUnparkStrategy() throws Exception
+    {
+        assertConsumerWokenOnCommit(WaitStrategy.TargetedUnpark());
+    }
+
+    @Test
+    public void shouldOnlyUnparkGatedConsumerOnceUpstreamConsumerAdvances() throws Exception
+    {
+        final RingBuffer<StubEntry> ringBuffer =
+            RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(4)
+                      .waitStrategy(WaitStrategy.newInstance(WaitStrategy.TargetedUnpark()))
+                      .singleProducer();
+        final NoOpConsumer<StubEntry> upstreamConsumer = new NoOpConsumer<StubEntry>(ringBuffer);
+        final ConsumerBarrier<StubEntry> upstreamBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
+        final TestConsumer gatingConsumer = new TestConsumer(upstreamBarrier);
+        final ConsumerBarrier<StubEntry> gatedBarrier = ringBuffer.createConsumerBarrier(new Consumer[] { gatingConsumer });
+        ringBuffer.consumersToTrack_(new Consumer[] { upstreamConsumer });
+
+        final Future<Long> sequence = EXECUTOR.submit(new Callable<Long>()
+        {
+            public Long call() throws Exception
+            {
+                return Long.valueOf(gatedBarrier.waitFor(0L, 1L, TimeUnit.SECONDS));
+            }
+        });
+
+        ringBuffer.commit(ringBuffer.nextEntry());
+        Thread.sleep(10L);
+        assertFalse(sequence.isDone());
+
+        gatingConsumer.sequence_(0L);
+        upstreamBarrier.signalProducers();
+
+        assertEquals(0L, sequence.get(100, TimeUnit.MILLISECONDS).longValue());
+    }
+
+    @Test
+    public void shouldTimeoutWithPhasedBackoffStrategy() throws Exception
+    {
+        final RingBuffer<StubEntry> ringBuffer =
+            RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(4)
+                      .waitStrategy(WaitStrategy.newInstance(WaitStrategy.PhasedBackoff()))
+                      .singleProducer();
+
+        assertEquals(-1L, ringBuffer.createConsumerBarrier(new Consumer[0]).waitFor(0L, 5L, TimeUnit.MILLISECONDS));
+    }
+
     @Test
     public void shouldClaimAndGetMultipleMessages() throws Exception
     {
@@ -182,7 +275,7 @@ public class RingBufferTest
         final int ringBufferSize = 4;
         final CountDownLatch latch = new CountDownLatch(ringBufferSize);
         final AtomicBoolean producerComplete = new AtomicBoolean(false);
-        final RingBuffer<StubEntry> ringBuffer = new RingBuffer<StubEntry>(StubEntry.ENTRY_FACTORY, ringBufferSize, null, null);
+        final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, ringBufferSize, null, null);
         final TestConsumer consumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
         final TestConsumer[] consumers = new TestConsumer[] { consumer };
         ringBuffer.consumersToTrack_(consumers);
@@ -215,6 +308,327 @@ public class RingBufferTest
         assertTrue(producerComplete.get());
     }
 
+    @Test
+    public void shouldWakeBlockedProducerWhenConsumerAdvances() throws Exception
+    {
+        final int ringBufferSize = 4;
+        final CountDownLatch latch = new CountDownLatch(ringBufferSize);
+        final AtomicBoolean producerComplete = new AtomicBoolean(false);
+        final RingBuffer<StubEntry> ringBuffer = RingBuffer.builder(StubEntry.ENTRY_FACTORY)
+                                                           .size(ringBufferSize)
+                                                           .producerWaitStrategy(ProducerWaitStrategy.newInstance(ProducerWaitStrategy.Blocking()))
+                                                           .singleProducer();
+        final BatchConsumer<StubEntry> batchConsumer =
+            new BatchConsumer<StubEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), new BatchHandler<StubEntry>()
+            {
+                public void onAvailable(final StubEntry entry)
+                {
+                }
+
+                public void onEndOfBatch()
+                {
+                }
+            });
+        ringBuffer.consumersToTrack_(new BatchConsumer[] { batchConsumer });
+
+        Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                for (int i = 0; i <= ringBufferSize; i++)
+                {
+                    StubEntry entry = ringBuffer.nextEntry();
+                    entry.setValue(i);
+                    ringBuffer.commit(entry);
+                    latch.countDown();
+                }
+
+                producerComplete.set(true);
+            }
+        });
+        thread.start();
+
+        latch.await();
+        assertThat(Long.valueOf(ringBuffer.cursor()), is(Long.valueOf(ringBufferSize - 1)));
+        assertFalse(producerComplete.get());
+
+        EXECUTOR.submit(batchConsumer);
+        thread.join();
+
+        assertTrue(producerComplete.get());
+        batchConsumer.halt();
+    }
+
+    @Test
+    public void shouldFailToClaimWithoutBlockingWhenRingIsFull() throws Exception
+    {
+        final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 4, null, null);
+        final TestConsumer consumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
+        ringBuffer.consumersToTrack_(new TestConsumer[] { consumer });
+
+        assertEquals(4L, ringBuffer.remainingCapacity());
+        for (int i = 0; i < 4; i++)
+        {
+            StubEntry entry = ringBuffer.tryNextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+        }
+
+        assertEquals(0L, ringBuffer.remainingCapacity());
+        assertEquals(null, ringBuffer.tryNextEntry());
+        assertEquals(null, ringBuffer.tryNextEntries(new SequenceBatch(1)));
+        assertEquals(3L, ringBuffer.cursor());
+
+        consumer.run();
+
+        assertEquals(1L, ringBuffer.remainingCapacity());
+        StubEntry entry = ringBuffer.tryNextEntry();
+        assertEquals(4L, entry.sequence());
+        assertEquals(null, ringBuffer.tryNextEntry());
+    }
+
+    @Test
+    public void shouldOnlyClaimBatchWhenRingHasCapacityForAllOfIt() throws Exception
+    {
+        final SingleProducerRingBuffer<StubEntry> ringBuffer = RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(8).singleProducer();
+        final TestConsumer consumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
+        ringBuffer.consumersToTrack_(new TestConsumer[] { consumer });
+
+        final SequenceBatch sequenceBatch = new SequenceBatch(5);
+        assertEquals(sequenceBatch, ringBuffer.tryNextEntries(sequenceBatch));
+        assertEquals(4L, sequenceBatch.end());
+        assertEquals(4L, ringBuffer.entry(4L).sequence());
+        ringBuffer.commit(sequenceBatch);
+
+        assertEquals(3L, ringBuffer.remainingCapacity());
+        assertEquals(null, ringBuffer.tryNextEntries(new SequenceBatch(5)));
+        assertEquals(3L, ringBuffer.remainingCapacity());
+    }
+
+    @Test
+    public void shouldJoinAddedConsumerAtCursorAndGateProducersOnIt() throws Exception
+    {
+        final SingleProducerRingBuffer<StubEntry> ringBuffer = RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(4).singleProducer();
+        for (int i = 0; i < 6; i++)
+        {
+            ringBuffer.commit(ringBuffer.nextEntry());
+        }
+
+        final TestConsumer consumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
+        ringBuffer.addConsumer(consumer);
+
+        assertEquals(5L, consumer.sequence());
+        assertEquals(4L, ringBuffer.remainingCapacity());
+        for (int i = 0; i < 4; i++)
+        {
+            ringBuffer.commit(ringBuffer.tryNextEntry());
+        }
+        assertEquals(null, ringBuffer.tryNextEntry());
+
+        assertTrue(ringBuffer.removeConsumer(consumer));
+        assertFalse(ringBuffer.removeConsumer(consumer));
+        assertEquals(0, ringBuffer.consumersToTrack().length);
+    }
+
+    @Test
+    public void shouldStartLateConsumerFromOldestEntryNotYetOverwritable() throws Exception
+    {
+        final SingleProducerRingBuffer<StubEntry> ringBuffer = RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(8).singleProducer();
+        final TestConsumer slowConsumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
+        ringBuffer.addConsumer(slowConsumer);
+        publishValues(ringBuffer, 0, 5);
+
+        final TestConsumer lateConsumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
+        ringBuffer.addConsumer(lateConsumer, RingBuffer.StartAtOldestAvailable());
+        assertEquals(-1L, lateConsumer.sequence());
+        ringBuffer.removeConsumer(lateConsumer);
+
+        slowConsumer.sequence_(4L);
+        publishValues(ringBuffer, 5, 11);
+
+        ringBuffer.addConsumer(lateConsumer, RingBuffer.StartAtOldestAvailable());
+        assertEquals(4L, lateConsumer.sequence());
+        assertEquals(5, ringBuffer.entry(lateConsumer.sequence() + 1L).getValue());
+    }
+
+    @Test
+    public void shouldStartLateConsumerAtCursorWhenNoEntriesAreHeldForOtherConsumers() throws Exception
+    {
+        final SingleProducerRingBuffer<StubEntry> ringBuffer = RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(8).singleProducer();
+        publishValues(ringBuffer, 0, 20);
+
+        final TestConsumer lateConsumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
+        ringBuffer.addConsumer(lateConsumer, RingBuffer.StartAtOldestAvailable());
+
+        assertEquals(19L, lateConsumer.sequence());
+    }
+
+    @Test
+    public void shouldReleaseBlockedProducerWhenGatingConsumerRemoved() throws Exception
+    {
+        final int ringBufferSize = 4;
+        final CountDownLatch latch = new CountDownLatch(ringBufferSize);
+        final AtomicBoolean producerComplete = new AtomicBoolean(false);
+        final RingBuffer<StubEntry> ringBuffer = RingBuffer.builder(StubEntry.ENTRY_FACTORY)
+                                                           .size(ringBufferSize)
+                                                           .producerWaitStrategy(ProducerWaitStrategy.newInstance(ProducerWaitStrategy.Blocking()))
+                                                           .singleProducer();
+        final TestConsumer stalledConsumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
+        ringBuffer.addConsumer(stalledConsumer);
+
+        Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                for (int i = 0; i <= ringBufferSize; i++)
+                {
+                    ringBuffer.commit(ringBuffer.nextEntry());
+                    latch.countDown();
+                }
+
+                producerComplete.set(true);
+            }
+        });
+        thread.start();
+
+        latch.await();
+        assertFalse(producerComplete.get());
+
+        ringBuffer.removeConsumer(stalledConsumer);
+        thread.join();
+
+        assertTrue(producerComplete.get());
+        assertEquals(ringBufferSize, ringBuffer.cursor());
+    }
+
+    @Test
+    public void shouldCreateRingBufferSpecialisedForClaimStrategy() throws Exception
+    {
+        assertTrue(RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, ClaimStrategy.SingleThreaded(), null) instanceof SingleProducerRingBuffer);
+        assertTrue(RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, ClaimStrategy.MultiThreaded(), null) instanceof MultiProducerRingBuffer);
+        assertTrue(RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null) instanceof MultiProducerRingBuffer);
+
+        SingleProducerRingBuffer<StubEntry> ringBuffer = RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(20).singleProducer();
+        assertEquals(32, ringBuffer.capacity());
+        assertTrue(ringBuffer.waitStrategy() instanceof WaitStrategy.BlockingStrategy);
+    }
+
+    @Test
+    public void shouldOnlyAdvanceCursorToHighestContiguousCommitWithLowContentionClaim() throws Exception
+    {
+        final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16,
+                                                                        ClaimStrategy.MultiThreadedLowContention(),
+                                                                        WaitStrategy.Yielding());
+        ringBuffer.consumersToTrack_(new NoOpConsumer[] { new NoOpConsumer<StubEntry>(ringBuffer) });
+        final ConsumerBarrier<StubEntry> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
+
+        StubEntry first = ringBuffer.nextEntry();
+        StubEntry second = ringBuffer.nextEntry();
+        StubEntry third = ringBuffer.nextEntry();
+
+        ringBuffer.commit(third);
+        ringBuffer.commit(second);
+        assertEquals(-1L, ringBuffer.cursor());
+        assertEquals(-1L, consumerBarrier.waitFor(0, 5, TimeUnit.MILLISECONDS));
+
+        ringBuffer.commit(first);
+        assertEquals(2L, ringBuffer.cursor());
+        assertEquals(2L, consumerBarrier.waitFor(0));
+    }
+
+    @Test
+    public void shouldCommitEveryEntryFromMultipleProducersWithLowContentionClaim() throws Exception
+    {
+        final int numProducers = 4;
+        final int entriesPerProducer = 10000;
+        final RingBuffer<StubEntry> ringBuffer = RingBuffer.builder(StubEntry.ENTRY_FACTORY)
+                                                           .size(64)
+                                                           .waitStrategy(WaitStrategy.newInstance(WaitStrategy.Yielding()))
+                                                           .lowContentionMultiProducer();
+        final TestConsumer consumer = new TestConsumer(ringBuffer.createConsumerBarrier(new Consumer[0]));
+        ringBuffer.consumersToTrack_(new TestConsumer[] { consumer });
+        final ConsumerBarrier<StubEntry> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
+        final CyclicBarrier startBarrier = new CyclicBarrier(numProducers);
+
+        for (int p = 0; p < numProducers; p++)
+        {
+            new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        startBarrier.await();
+                    }
+                    catch (Exception ex)
+                    {
+                        throw new RuntimeException(ex);
+                    }
+
+                    for (int i = 0; i < entriesPerProducer; i++)
+                    {
+                        StubEntry entry = ringBuffer.nextEntry();
+                        entry.setValue(1);
+                        ringBuffer.commit(entry);
+                    }
+                }
+            }).start();
+        }
+
+        final long expectedSequence = (numProducers * entriesPerProducer) - 1L;
+        long total = 0L;
+        long nextSequence = 0L;
+        while (nextSequence <= expectedSequence)
+        {
+            long availableSequence = consumerBarrier.waitFor(nextSequence);
+            for (; nextSequence <= availableSequence; nextSequence++)
+            {
+                total += ringBuffer.entry(nextSequence).getValue();
+            }
+            consumer.sequence_(availableSequence);
+        }
+
+        assertEquals(numProducers * entriesPerProducer, total);
+        assertEquals(expectedSequence, ringBuffer.cursor());
+    }
+
+    private void assertConsumerWokenOnCommit(final String waitStrategyOption) throws Exception
+    {
+        final RingBuffer<StubEntry> ringBuffer =
+            RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(4)
+                      .waitStrategy(WaitStrategy.newInstance(waitStrategyOption))
+                      .singleProducer();
+        final ConsumerBarrier<StubEntry> consumerBarrier = ringBuffer.createConsumerBarrier(new Consumer[0]);
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final Future<Long> sequence = EXECUTOR.submit(new Callable<Long>()
+        {
+            public Long call() throws Exception
+            {
+                waiting.countDown();
+                return Long.valueOf(consumerBarrier.waitFor(0L));
+            }
+        });
+
+        waiting.await();
+        Thread.sleep(10L);
+        ringBuffer.commit(ringBuffer.nextEntry());
+
+        assertEquals(0L, sequence.get(1, TimeUnit.SECONDS).longValue());
+    }
+
+    private void publishValues(final RingBuffer<StubEntry> ringBuffer, final int fromValue, final int toValue)
+    {
+        for (int i = fromValue; i < toValue; i++)
+        {
+            StubEntry entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+        }
+    }
+
     private Future<List<StubEntry>> getMessages(final long initial, final long toWaitFor)
         throws InterruptedException, BrokenBarrierException
     {
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.EntryMarshaller;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.SegmentedJournal;
+import com.jamieallen.sdisruptor.SegmentedJournalReader;
+import com.jamieallen.sdisruptor.SegmentedJournalingBatchHandler;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class SegmentedJournalTest
+{
+    private static final int MAX_ENTRY_SIZE = 4;
+    private static final int RECORD_SIZE = 20;
+
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 64, null, null);
+    private SegmentedJournal journal;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        File directory = File.createTempFile("SegmentedJournalTest", "");
+        directory.delete();
+        journal = new SegmentedJournal(directory, 5 * RECORD_SIZE, 2);
+    }
+
+    @Test
+    public void shouldRollSegmentsAndReplayFromStart() throws Exception
+    {
+        journal(20);
+
+        assertArrayEquals(new long[] { 0L, 5L, 10L, 15L }, journal.segments());
+
+        RingBuffer<StubEntry> replayed = newRingBuffer();
+        assertEquals(19L, newReader().replay(replayed));
+        assertValues(replayed, 0, 20);
+    }
+
+    @Test
+    public void shouldSeekBySequence() throws Exception
+    {
+        journal(20);
+
+        SegmentedJournalReader<StubEntry> reader = newReader();
+        reader.seekSequence(12L);
+
+        RingBuffer<StubEntry> replayed = newRingBuffer();
+        assertEquals(7L, reader.replay(replayed));
+        assertValues(replayed, 12, 8);
+    }
+
+    @Test
+    public void shouldSeekByTimeToLastIndexedRecordAtOrBeforeIt() throws Exception
+    {
+        journal(10);
+        Thread.sleep(5L);
+        final long timeMillis = System.currentTimeMillis();
+        Thread.sleep(5L);
+        journal(10);
+
+        SegmentedJournalReader<StubEntry> reader = newReader();
+        reader.seekTime(timeMillis);
+
+        RingBuffer<StubEntry> replayed = newRingBuffer();
+        assertEquals(10L, reader.replay(replayed));
+        assertValues(replayed, 9, 11);
+    }
+
+    @Test
+    public void shouldTruncateTornRecordAndContinueAppending() throws Exception
+    {
+        journal(7);
+
+        RandomAccessFile segment = new RandomAccessFile(journal.segmentFile(5L), "rw");
+        segment.seek(segment.length());
+        segment.writeInt(MAX_ENTRY_SIZE);
+        segment.close();
+
+        journal(2);
+
+        RingBuffer<StubEntry> replayed = newRingBuffer();
+        assertEquals(8L, newReader().replay(replayed));
+        assertValues(replayed, 0, 9);
+    }
+
+    @Test
+    public void shouldAppendAfterRestartWithFreshRingBuffer() throws Exception
+    {
+        journal(ringBuffer, 20, 1000);
+        journal(newRingBuffer(), 7, 2000);
+
+        assertArrayEquals(new long[] { 0L, 5L, 10L, 15L, 20L, 25L }, journal.segments());
+
+        RingBuffer<StubEntry> replayed = newRingBuffer();
+        assertEquals(26L, newReader().replay(replayed));
+        for (int i = 0; i < 27; i++)
+        {
+            assertEquals(i < 20 ? 1000 + i * 10 : 2000 + (i - 20) * 10, replayed.entry(i).getValue());
+        }
+    }
+
+    @Test
+    public void shouldNotJournalReplayedEntriesAgain() throws Exception
+    {
+        journal(5);
+
+        RingBuffer<StubEntry> restarted = newRingBuffer();
+        SegmentedJournalingBatchHandler<StubEntry> handler =
+            new SegmentedJournalingBatchHandler<StubEntry>(journal, MARSHALLER, MAX_ENTRY_SIZE, 64);
+        assertEquals(4L, handler.replay(restarted));
+
+        handler.onStart();
+        for (long sequence = 0L; sequence <= restarted.cursor(); sequence++)
+        {
+            handler.onAvailable(restarted.entry(sequence));
+        }
+        handler.onShutdown();
+        journal(restarted, 2, 50);
+
+        RingBuffer<StubEntry> replayed = newRingBuffer();
+        assertEquals(6L, newReader().replay(replayed));
+        assertValues(replayed, 0, 7);
+    }
+
+    private void journal(final int count)
+    {
+        journal(ringBuffer, count, (int)(ringBuffer.cursor() + 1L) * 10);
+    }
+
+    private void journal(final RingBuffer<StubEntry> ringBuffer, final int count, final int firstValue)
+    {
+        SegmentedJournalingBatchHandler<StubEntry> handler =
+            new SegmentedJournalingBatchHandler<StubEntry>(journal, MARSHALLER, MAX_ENTRY_SIZE, 64);
+        handler.onStart();
+
+        for (int i = 0; i < count; i++)
+        {
+            StubEntry entry = ringBuffer.nextEntry();
+            entry.setValue(firstValue + i * 10);
+            ringBuffer.commit(entry);
+            handler.onAvailable(entry);
+
+            if (i % 3 == 2)
+            {
+                handler.onEndOfBatch();
+            }
+        }
+
+        handler.onShutdown();
+    }
+
+    private void assertValues(final RingBuffer<StubEntry> replayed, final int firstSequence, final int count)
+    {
+        assertEquals(count - 1, replayed.cursor());
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals((firstSequence + i) * 10, replayed.entry(i).getValue());
+        }
+    }
+
+    private RingBuffer<StubEntry> newRingBuffer()
+    {
+        return RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 64, null, null);
+    }
+
+    private SegmentedJournalReader<StubEntry> newReader()
+    {
+        return new SegmentedJournalReader<StubEntry>(journal, MARSHALLER, MAX_ENTRY_SIZE);
+    }
+
+    private static final EntryMarshaller<StubEntry> MARSHALLER = new EntryMarshaller<StubEntry>()
+    {
+        public void marshal(final StubEntry entry, final ByteBuffer buffer)
+        {
+            buffer.putInt(entry.getValue());
+        }
+
+        public void unmarshal(final ByteBuffer buffer, final StubEntry entry)
+        {
+            entry.setValue(buffer.getInt());
+        }
+    };
+}
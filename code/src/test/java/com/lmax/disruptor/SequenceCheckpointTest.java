@@ -0,0 +1,130 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.SequenceCheckpoint;
+import com.lmax.disruptor.support.DaemonThreadFactory;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class SequenceCheckpointTest
+{
+    private final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
+    private File file;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        file = File.createTempFile("SequenceCheckpointTest", ".checkpoint");
+        file.deleteOnExit();
+    }
+
+    @Test
+    public void shouldStartAtMinusOneForNewFile()
+    {
+        assertEquals(-1L, new SequenceCheckpoint(file, 1, 0L).sequence());
+    }
+
+    @Test
+    public void shouldCheckpointEveryNBatches()
+    {
+        SequenceCheckpoint checkpoint = new SequenceCheckpoint(file, 2, 0L);
+
+        checkpoint.onEndOfBatch(1L);
+        assertEquals(-1L, checkpoint.sequence());
+        checkpoint.onEndOfBatch(3L);
+        assertEquals(3L, checkpoint.sequence());
+        checkpoint.onEndOfBatch(5L);
+        assertEquals(3L, checkpoint.sequence());
+    }
+
+    @Test
+    public void shouldCheckpointOnceIntervalHasPassed() throws Exception
+    {
+        SequenceCheckpoint checkpoint = new SequenceCheckpoint(file, 0, 50L * 1000L);
+
+        checkpoint.onEndOfBatch(1L);
+        assertEquals(-1L, checkpoint.sequence());
+        Thread.sleep(60L);
+        checkpoint.onEndOfBatch(2L);
+        assertEquals(2L, checkpoint.sequence());
+    }
+
+    @Test
+    public void shouldResumeBatchConsumerFromCheckpointedSequence() throws Exception
+    {
+        new SequenceCheckpoint(file, 1, 0L).checkpoint(4L);
+
+        final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
+        final RecordingHandler handler = new RecordingHandler(3);
+        final BatchConsumer<StubEntry> batchConsumer =
+            new BatchConsumer<StubEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), handler);
+        batchConsumer.checkpoint_(new SequenceCheckpoint(file, 1000, 0L));
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+
+        assertEquals(4L, batchConsumer.sequence());
+
+        Future<?> future = EXECUTOR.submit(batchConsumer);
+        for (int i = 0; i < 8; i++)
+        {
+            ringBuffer.commit(ringBuffer.nextEntry());
+        }
+        handler.latch.await();
+        batchConsumer.halt();
+        future.get();
+
+        assertEquals(5L, handler.firstSequence);
+        assertEquals(7L, new SequenceCheckpoint(file, 1, 0L).sequence());
+    }
+
+    private static final class RecordingHandler implements BatchHandler<StubEntry>
+    {
+        private final CountDownLatch latch;
+        private long firstSequence = -1L;
+
+        private RecordingHandler(final int expectedEntries)
+        {
+            latch = new CountDownLatch(expectedEntries);
+        }
+
+        public void onAvailable(final StubEntry entry)
+        {
+            if (firstSequence == -1L)
+            {
+                firstSequence = entry.sequence();
+            }
+            latch.countDown();
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+    }
+}
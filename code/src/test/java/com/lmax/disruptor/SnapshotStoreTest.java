@@ -0,0 +1,167 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.BatchConsumer;
+import com.jamieallen.sdisruptor.BatchHandler;
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.Snapshot;
+import com.jamieallen.sdisruptor.SnapshotAware;
+import com.jamieallen.sdisruptor.SnapshotStore;
+import com.lmax.disruptor.support.DaemonThreadFactory;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class SnapshotStoreTest
+{
+    private static final Executor SAME_THREAD = new Executor()
+    {
+        public void execute(final Runnable command)
+        {
+            command.run();
+        }
+    };
+
+    private final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
+    private SnapshotStore store;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        File directory = File.createTempFile("SnapshotStoreTest", "");
+        directory.delete();
+        store = new SnapshotStore(directory, SAME_THREAD);
+    }
+
+    @Test
+    public void shouldSnapshotAtEndOfBatchAndRestoreLatest() throws Exception
+    {
+        final SummingHandler handler = new SummingHandler();
+        final BatchConsumer<StubEntry> batchConsumer =
+            new BatchConsumer<StubEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), handler);
+        batchConsumer.snapshotStore_(store);
+        ringBuffer.consumersToTrack_(new Consumer[] { batchConsumer });
+        EXECUTOR.submit(batchConsumer);
+
+        publishAndWait(batchConsumer, 1, 2, 3);
+        batchConsumer.requestSnapshot();
+        publishAndWait(batchConsumer, 4);
+        publishAndWait(batchConsumer, 5);
+        batchConsumer.halt();
+
+        assertEquals(3L, store.latestSequence());
+
+        final SummingHandler restored = new SummingHandler();
+        assertEquals(3L, store.restore(restored));
+        assertEquals(10L, restored.sum);
+    }
+
+    @Test
+    public void shouldIgnoreIncompleteSnapshot() throws Exception
+    {
+        final SummingHandler handler = new SummingHandler();
+        handler.sum = 42L;
+        store.write(7L, handler.snapshot());
+        new File(store.directory(), "00000000000000000009.snapshot.tmp").createNewFile();
+
+        final SummingHandler restored = new SummingHandler();
+        assertEquals(7L, store.restore(restored));
+        assertEquals(42L, restored.sum);
+    }
+
+    @Test
+    public void shouldRestoreNothingWhenThereAreNoSnapshots()
+    {
+        assertEquals(-1L, store.restore(new SummingHandler()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectStoreForHandlerThatIsNotSnapshotAware()
+    {
+        BatchHandler<StubEntry> handler = new BatchHandler<StubEntry>()
+        {
+            public void onAvailable(final StubEntry entry)
+            {
+            }
+
+            public void onEndOfBatch()
+            {
+            }
+        };
+
+        new BatchConsumer<StubEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), handler).snapshotStore_(store);
+    }
+
+    private void publishAndWait(final BatchConsumer<StubEntry> batchConsumer, final int... values)
+    {
+        for (int value : values)
+        {
+            StubEntry entry = ringBuffer.nextEntry();
+            entry.setValue(value);
+            ringBuffer.commit(entry);
+        }
+
+        while (batchConsumer.sequence() < ringBuffer.cursor())
+        {
+            Thread.yield();
+        }
+    }
+
+    private static final class SummingHandler implements BatchHandler<StubEntry>, SnapshotAware
+    {
+        private long sum;
+
+        public void onAvailable(final StubEntry entry)
+        {
+            sum += entry.getValue();
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+
+        public Snapshot snapshot()
+        {
+            final long snapshotSum = sum;
+            return new Snapshot()
+            {
+                public void writeTo(final DataOutput output) throws IOException
+                {
+                    output.writeLong(snapshotSum);
+                }
+            };
+        }
+
+        public void restore(final DataInput input) throws IOException
+        {
+            sum = input.readLong();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.TapConsumer;
+import com.jamieallen.sdisruptor.TapHandler;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class TapConsumerTest
+{
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.builder(StubEntry.ENTRY_FACTORY).size(8).singleProducer();
+    private final RecordingTapHandler handler = new RecordingTapHandler();
+    private final TapConsumer<StubEntry> tapConsumer = new TapConsumer<StubEntry>(ringBuffer, handler);
+
+    @Test
+    public void shouldSeeEveryEntryWhenKeepingUp() throws Exception
+    {
+        final Thread thread = new Thread(tapConsumer);
+        thread.start();
+
+        publishValues(5);
+        waitForTap();
+        tapConsumer.halt();
+        thread.join();
+
+        assertEquals(0L, tapConsumer.missedEntries());
+        assertEquals(0L, handler.missedEntries);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), handler.values);
+    }
+
+    @Test
+    public void shouldReportMissedEntriesInsteadOfGatingProducer() throws Exception
+    {
+        publishValues(20);
+
+        final Thread thread = new Thread(tapConsumer);
+        thread.start();
+        waitForTap();
+        tapConsumer.halt();
+        thread.join();
+
+        assertEquals(12L, tapConsumer.missedEntries());
+        assertEquals(12L, handler.missedEntries);
+        assertEquals(Arrays.asList(12, 13, 14, 15, 16, 17, 18, 19), handler.values);
+    }
+
+    @Test
+    public void shouldAccountForEveryEntryWhenLappedWhileRunning() throws Exception
+    {
+        final CountDownLatch release = new CountDownLatch(1);
+        handler.blockOnFirstEntry(release);
+        final Thread thread = new Thread(tapConsumer);
+        thread.start();
+
+        publishValues(1);
+        handler.handling.await();
+        publishValues(1000);
+        release.countDown();
+        waitForTap();
+        tapConsumer.halt();
+        thread.join();
+
+        assertTrue(tapConsumer.missedEntries() > 0L);
+        assertEquals(tapConsumer.missedEntries(), handler.missedEntries);
+        assertEquals(1001L, handler.values.size() + tapConsumer.missedEntries());
+    }
+
+    private void publishValues(final int numEntries)
+    {
+        for (int i = 0; i < numEntries; i++)
+        {
+            StubEntry entry = ringBuffer.tryNextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+        }
+    }
+
+    private void waitForTap()
+    {
+        while (tapConsumer.sequence() < ringBuffer.cursor())
+        {
+            Thread.yield();
+        }
+    }
+
+    private static final class RecordingTapHandler implements TapHandler<StubEntry>
+    {
+        private final List<Integer> values = new ArrayList<Integer>();
+        private final CountDownLatch handling = new CountDownLatch(1);
+        private CountDownLatch release;
+        private long missedEntries;
+
+        public void blockOnFirstEntry(final CountDownLatch release)
+        {
+            this.release = release;
+        }
+
+        public void onAvailable(final StubEntry entry)
+        {
+            values.add(Integer.valueOf(entry.getValue()));
+            handling.countDown();
+            if (release != null)
+            {
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        public void onEndOfBatch()
+        {
+        }
+
+        public void onLapped(final long missedEntries)
+        {
+            this.missedEntries += missedEntries;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+import com.jamieallen.sdisruptor.Consumer;
+import com.jamieallen.sdisruptor.RingBuffer;
+import com.jamieallen.sdisruptor.Util;
+import com.jamieallen.sdisruptor.WorkHandler;
+import com.jamieallen.sdisruptor.WorkerPool;
+import com.lmax.disruptor.support.DaemonThreadFactory;
+import com.lmax.disruptor.support.StubEntry;
+
+public final class WorkerPoolTest
+{
+    private static final int WORKERS = 3;
+
+    private final ExecutorService EXECUTOR = Executors.newFixedThreadPool(WORKERS, new DaemonThreadFactory());
+    private final RingBuffer<StubEntry> ringBuffer = RingBuffer.newInstance(StubEntry.ENTRY_FACTORY, 16, null, null);
+
+    @Test
+    public void shouldHandleEachEntryByExactlyOneWorker() throws Exception
+    {
+        final int numEntries = 1000;
+        final AtomicIntegerArray timesHandled = new AtomicIntegerArray(numEntries);
+        final WorkerPool<StubEntry> workerPool = newCountingWorkerPool(timesHandled);
+        workerPool.start(EXECUTOR);
+
+        publishAndWait(workerPool, 0, numEntries);
+        workerPool.halt();
+
+        assertHandledOnce(timesHandled);
+    }
+
+    @Test
+    public void shouldCarryOnWithClaimedEntriesWhenRestarted() throws Exception
+    {
+        final int numEntries = 200;
+        final AtomicIntegerArray timesHandled = new AtomicIntegerArray(numEntries);
+        final WorkerPool<StubEntry> workerPool = newCountingWorkerPool(timesHandled);
+
+        workerPool.start(EXECUTOR);
+        publishAndWait(workerPool, 0, numEntries / 2);
+        workerPool.halt();
+        assertTrue(workerPool.awaitTermination(5, TimeUnit.SECONDS));
+
+        workerPool.start(EXECUTOR);
+        publishAndWait(workerPool, numEntries / 2, numEntries);
+        workerPool.halt();
+
+        assertHandledOnce(timesHandled);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectStartWhileWorkersAreStillRunning() throws Exception
+    {
+        final WorkerPool<StubEntry> workerPool = newCountingWorkerPool(new AtomicIntegerArray(1));
+        workerPool.start(EXECUTOR);
+
+        try
+        {
+            workerPool.start(EXECUTOR);
+        }
+        finally
+        {
+            workerPool.halt();
+            assertTrue(workerPool.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotLetRingWrapEntryBeingHandled() throws Exception
+    {
+        final BlockingHandler blockingHandler = new BlockingHandler();
+        final WorkerPool<StubEntry> workerPool =
+            new WorkerPool<StubEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), new WorkHandler[] { blockingHandler });
+        ringBuffer.consumersToTrack_(workerPool.consumers());
+        workerPool.start(EXECUTOR);
+
+        ringBuffer.commit(ringBuffer.nextEntry());
+        while (!blockingHandler.handling)
+        {
+            Thread.yield();
+        }
+
+        for (int i = 0; i < ringBuffer.capacity(); i++)
+        {
+            StubEntry entry = ringBuffer.tryNextEntry();
+            if (entry == null)
+            {
+                break;
+            }
+            ringBuffer.commit(entry);
+        }
+
+        assertEquals(ringBuffer.capacity() - 1, ringBuffer.cursor());
+        assertEquals(0L, ringBuffer.remainingCapacity());
+
+        blockingHandler.release = true;
+        workerPool.halt();
+    }
+
+    @SuppressWarnings("unchecked")
+    private WorkerPool<StubEntry> newCountingWorkerPool(final AtomicIntegerArray timesHandled)
+    {
+        final WorkHandler<StubEntry>[] handlers = new WorkHandler[WORKERS];
+        for (int i = 0; i < WORKERS; i++)
+        {
+            handlers[i] = new CountingHandler(timesHandled);
+        }
+
+        final WorkerPool<StubEntry> workerPool = new WorkerPool<StubEntry>(ringBuffer.createConsumerBarrier(new Consumer[0]), handlers);
+        ringBuffer.consumersToTrack_(workerPool.consumers());
+
+        return workerPool;
+    }
+
+    private void publishAndWait(final WorkerPool<StubEntry> workerPool, final int fromValue, final int toValue)
+    {
+        for (int i = fromValue; i < toValue; i++)
+        {
+            StubEntry entry = ringBuffer.nextEntry();
+            entry.setValue(i);
+            ringBuffer.commit(entry);
+        }
+
+        while (Util.getMinimumSequence(workerPool.consumers()) < ringBuffer.cursor())
+        {
+            Thread.yield();
+        }
+    }
+
+    private void assertHandledOnce(final AtomicIntegerArray timesHandled)
+    {
+        for (int i = 0; i < timesHandled.length(); i++)
+        {
+            assertEquals("entry " + i, 1, timesHandled.get(i));
+        }
+    }
+
+    private static final class CountingHandler implements WorkHandler<StubEntry>
+    {
+        private final AtomicIntegerArray timesHandled;
+
+        private CountingHandler(final AtomicIntegerArray timesHandled)
+        {
+            this.timesHandled = timesHandled;
+        }
+
+        public void onAvailable(final StubEntry entry)
+        {
+            timesHandled.incrementAndGet(entry.getValue());
+        }
+    }
+
+    private static final class BlockingHandler implements WorkHandler<StubEntry>
+    {
+        private volatile boolean handling;
+        private volatile boolean release;
+
+        public void onAvailable(final StubEntry entry)
+        {
+            handling = true;
+            while (!release)
+            {
+                Thread.yield();
+            }
+        }
+    }
+}
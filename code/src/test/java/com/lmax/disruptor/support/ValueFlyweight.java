@@ -0,0 +1,58 @@
+/*
+ * Copyright 2011 LMAX Ltd., modified by Jamie Allen to use Scala port.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.support;
+
+import com.jamieallen.sdisruptor.EntryFactory;
+import com.jamieallen.sdisruptor.FlyweightEntry;
+
+public final class ValueFlyweight extends FlyweightEntry
+{
+    private static final int VALUE_OFFSET = 0;
+    private static final int FLAG_OFFSET = 8;
+
+    public static final EntryFactory<ValueFlyweight> ENTRY_FACTORY = new EntryFactory<ValueFlyweight>()
+    {
+        public ValueFlyweight create()
+        {
+            return new ValueFlyweight();
+        }
+    };
+
+    public int size()
+    {
+        return 12;
+    }
+
+    public long getValue()
+    {
+        return getLong(VALUE_OFFSET);
+    }
+
+    public void setValue(final long value)
+    {
+        putLong(VALUE_OFFSET, value);
+    }
+
+    public int getFlag()
+    {
+        return getInt(FLAG_OFFSET);
+    }
+
+    public void setFlag(final int flag)
+    {
+        putInt(FLAG_OFFSET, flag);
+    }
+}